@@ -6,6 +6,10 @@
 -- Generation Time: Jun 26, 2025 at 10:04 PM
 -- Server version: 10.4.32-MariaDB
 -- PHP Version: 8.2.12
+--
+-- This is the base schema. Later changes (change log, indexes, ...) are numbered
+-- scripts under src/com/mycompany/hall/booking/system/migrations, applied by
+-- SchemaMigrator when the application starts.
 
 SET SQL_MODE = "NO_AUTO_VALUE_ON_ZERO";
 START TRANSACTION;
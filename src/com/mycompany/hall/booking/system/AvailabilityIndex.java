@@ -0,0 +1,257 @@
+// AvailabilityIndex.java
+// In-memory index of booked time ranges per (room, day), used to detect overlapping bookings
+// without scanning the Bookings table.
+package com.mycompany.hall.booking.system;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class AvailabilityIndex {
+
+    private static final AvailabilityIndex INSTANCE = new AvailabilityIndex();
+
+    // One interval tree per room and day, holding only bookings that block the room.
+    private final Map<Long, IntervalTree> trees = new HashMap<>();
+    // Every indexed booking (any status), so status changes can add or remove it from its tree.
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private boolean loaded;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Notified (while the index is locked) whenever the booked intervals of a room-day
+     * change, or with {@code roomId == -1} after a full reload. Implementations must not block.
+     */
+    public interface Listener {
+        void roomDayChanged(int roomId, long epochDay);
+    }
+
+    /**
+     * Receives every blocking interval, see {@link #forEachBlocking}.
+     */
+    public interface IntervalVisitor {
+        void visit(int roomId, long epochDay, int startSecond, int endSecond);
+    }
+
+    private static final class Entry {
+        final int roomId;
+        final long day;
+        final int start;
+        final int end;
+        String status;
+
+        Entry(int roomId, long day, int start, int end, String status) {
+            this.roomId = roomId;
+            this.day = day;
+            this.start = start;
+            this.end = end;
+            this.status = status;
+        }
+    }
+
+    public static AvailabilityIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Pending and approved bookings hold the room; rejected ones free it again.
+     */
+    public static boolean isBlocking(String status) {
+        return "pending".equalsIgnoreCase(status) || "approved".equalsIgnoreCase(status);
+    }
+
+    /**
+     * Checks whether the room is free for the whole of [start, end) on the given date.
+     * Loads the index from the database on first use; while it cannot be loaded the
+     * room is reported as not free, since nothing is known about its bookings.
+     */
+    public boolean isFree(int roomId, Date date, Time start, Time end) {
+        if (!ensureLoaded()) return false;
+        synchronized (this) {
+            IntervalTree tree = trees.get(key(roomId, date));
+            return tree == null || !tree.overlaps(seconds(start), seconds(end));
+        }
+    }
+
+    /**
+     * Lists the ids of bookings that overlap [start, end) in the given room on the given date.
+     * Only a hint for the booking dialog: the index learns of other clients' changes late, so
+     * createBooking's locked check decides. Returns null if the index could not be loaded.
+     */
+    public List<Integer> findConflicts(int roomId, Date date, Time start, Time end) {
+        if (!ensureLoaded()) return null;
+        synchronized (this) {
+            IntervalTree tree = trees.get(key(roomId, date));
+            if (tree == null) return Collections.emptyList();
+            return tree.findOverlapping(seconds(start), seconds(end));
+        }
+    }
+
+    /**
+     * Returns the blocking intervals for one room and day as {bookingId, startSecond, endSecond}.
+     * Call {@link #ensureLoaded} first; an index that is not loaded has no intervals.
+     */
+    public List<int[]> getBookedIntervals(int roomId, LocalDate date) {
+        synchronized (this) {
+            IntervalTree tree = trees.get(key(roomId, date.toEpochDay()));
+            return tree == null ? new ArrayList<>() : tree.toList();
+        }
+    }
+
+    /**
+     * Visits every blocking booking currently in the index.
+     * Call {@link #ensureLoaded} first; an index that is not loaded has no bookings.
+     */
+    public void forEachBlocking(IntervalVisitor visitor) {
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                if (isBlocking(entry.status)) {
+                    visitor.visit(entry.roomId, entry.day, entry.start, entry.end);
+                }
+            }
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Loads the index if it is not loaded yet. A load that failed is retried on the next call.
+     *
+     * @return false if the index is still not loaded because the database could not be read
+     */
+    public boolean ensureLoaded() {
+        synchronized (this) {
+            if (loaded) return true;
+        }
+        return reload();
+    }
+
+    /**
+     * Rebuilds the index from today's and future bookings.
+     *
+     * @return false if the bookings could not be read; the index is left as it was
+     */
+    public boolean reload() {
+        ArrayList<Booking> bookings = DatabaseManager.getUpcomingBookings(Date.valueOf(LocalDate.now()));
+        if (bookings == null) return false;
+        synchronized (this) {
+            trees.clear();
+            entries.clear();
+            for (Booking booking : bookings) {
+                put(booking);
+            }
+            loaded = true;
+            fireChanged(-1, 0);
+        }
+        return true;
+    }
+
+    /*==============================================*
+     * INCREMENTAL UPDATES (called by DatabaseManager)
+     *==============================================*/
+
+    // The deltas since the last load are no longer available: load everything again on next use.
+    synchronized void invalidate() {
+        loaded = false;
+    }
+
+    synchronized void onBookingCreated(Booking booking) {
+        if (!loaded || booking.getDate() == null) return;
+        remove(booking.getId());
+        put(booking);
+    }
+
+    synchronized void onBookingStatusChanged(int bookingId, String status) {
+        if (!loaded) return;
+        Entry entry = entries.get(bookingId);
+        if (entry == null) return;
+        boolean wasBlocking = isBlocking(entry.status);
+        entry.status = status;
+        if (wasBlocking && !isBlocking(status)) {
+            untrack(bookingId, entry);
+        } else if (!wasBlocking && isBlocking(status)) {
+            track(bookingId, entry);
+        }
+    }
+
+    synchronized void onBookingStatusesChanged(List<Integer> bookingIds, String status) {
+        for (int bookingId : bookingIds) {
+            onBookingStatusChanged(bookingId, status);
+        }
+    }
+
+    synchronized void onBookingDeleted(int bookingId) {
+        if (!loaded) return;
+        remove(bookingId);
+    }
+
+    synchronized void applyChanges(BookingChanges changes) {
+        if (!loaded) return;
+        for (int bookingId : changes.getDeletedIds()) {
+            remove(bookingId);
+        }
+        for (Booking booking : changes.getUpserted()) {
+            remove(booking.getId());
+            put(booking);
+        }
+    }
+
+    private void put(Booking booking) {
+        Entry entry = new Entry(booking.getRoomId(), booking.getDate().toLocalDate().toEpochDay(),
+                seconds(booking.getStartTime()), seconds(booking.getEndTime()), booking.getStatus());
+        entries.put(booking.getId(), entry);
+        if (isBlocking(entry.status)) {
+            track(booking.getId(), entry);
+        }
+    }
+
+    private void remove(int bookingId) {
+        Entry entry = entries.remove(bookingId);
+        if (entry != null && isBlocking(entry.status)) {
+            untrack(bookingId, entry);
+        }
+    }
+
+    private void track(int bookingId, Entry entry) {
+        trees.computeIfAbsent(key(entry.roomId, entry.day), k -> new IntervalTree())
+             .insert(bookingId, entry.start, entry.end);
+        fireChanged(entry.roomId, entry.day);
+    }
+
+    private void untrack(int bookingId, Entry entry) {
+        long key = key(entry.roomId, entry.day);
+        IntervalTree tree = trees.get(key);
+        if (tree != null) {
+            tree.remove(bookingId, entry.start);
+            if (tree.isEmpty()) trees.remove(key);
+        }
+        fireChanged(entry.roomId, entry.day);
+    }
+
+    private void fireChanged(int roomId, long epochDay) {
+        if (!loaded) return;
+        for (Listener listener : listeners) {
+            listener.roomDayChanged(roomId, epochDay);
+        }
+    }
+
+    private static long key(int roomId, Date date) {
+        return key(roomId, date.toLocalDate().toEpochDay());
+    }
+
+    private static long key(int roomId, long epochDay) {
+        return ((long) roomId << 32) | (epochDay & 0xffffffffL);
+    }
+
+    static int seconds(Time time) {
+        return time.toLocalTime().toSecondOfDay();
+    }
+}
@@ -12,11 +12,16 @@ public class Booking {
     private Time startTime;
     private Time endTime;
     private String purpose;
+    private boolean purposeTruncated; // purpose holds only a preview; fetch the full text with getBookingPurpose
     private String status;
     
     // This new field will hold the room's name, fetched via a DB join.
     private String roomName; 
 
+    // Name and email of the booking's user; only set by the admin queries that join Users.
+    private String userName;
+    private String userEmail;
+
     public Booking(int id, int userId, int roomId, Date date, Time startTime, Time endTime, String purpose, String status) {
         this.id = id;
         this.userId = userId;
@@ -38,9 +43,16 @@ public class Booking {
     public Date getDate() { return date; }
     public Time getStartTime() { return startTime; }
     public Time getEndTime() { return endTime; }
+    // The purpose as fetched: only a preview if isPurposeTruncated(), see DataAccess getBookingPurpose
     public String getPurpose() { return purpose; }
+
+    // What list views show: the purpose as fetched, with an ellipsis if it was cut short.
+    public String getPurposePreview() { return purposeTruncated ? purpose + "…" : purpose; }
+    public boolean isPurposeTruncated() { return purposeTruncated; }
     public String getStatus() { return status; }
     public String getRoomName() { return roomName; } // Getter for the new field
+    public String getUserName() { return userName; }
+    public String getUserEmail() { return userEmail; }
 
     // Setters for all fields
     public void setId(int id) { this.id = id; }
@@ -49,7 +61,10 @@ public class Booking {
     public void setDate(Date date) { this.date = date; }
     public void setStartTime(Time startTime) { this.startTime = startTime; }
     public void setEndTime(Time endTime) { this.endTime = endTime; }
-    public void setPurpose(String purpose) { this.purpose = purpose; }
+    public void setPurpose(String purpose) { this.purpose = purpose; this.purposeTruncated = false; }
+    public void setPurposePreview(String preview, boolean truncated) { this.purpose = preview; this.purposeTruncated = truncated; }
     public void setStatus(String status) { this.status = status; }
     public void setRoomName(String roomName) { this.roomName = roomName; } // Setter for the new field
+    public void setUserName(String userName) { this.userName = userName; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
 }
@@ -0,0 +1,167 @@
+// BookingArchiver.java
+// Moves approved and rejected bookings older than the archive horizon from `bookings` into the
+// month-partitioned `bookings_archive` table (see migrations/005_bookings_archive.sql). Works in
+// small batches, each its own short transaction, with a pause in between so regular traffic
+// never waits long on its locks. Run with "ant archive-bookings", e.g. nightly from cron.
+package com.mycompany.hall.booking.system;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BookingArchiver {
+
+    // Each can be overridden with -Dhallbooking.archive.<name>=<value>
+    private static final int HORIZON_DAYS = Integer.getInteger("hallbooking.archive.horizonDays", 365);
+    private static final int BATCH_SIZE = Integer.getInteger("hallbooking.archive.batchSize", 500);
+    private static final long PAUSE_MS = Long.getLong("hallbooking.archive.pauseMs", 200);
+
+    private static final String FUTURE_PARTITION = "p_future";
+
+    // No ORDER BY: the (status, date) index range stops after BATCH_SIZE rows, so only those are locked.
+    static final String ARCHIVABLE_SQL = "SELECT id FROM Bookings "
+            + "WHERE status IN ('approved', 'rejected') AND date < ? LIMIT ? FOR UPDATE";
+    private static final String COLUMNS = "id, user_id, room_id, date, start_time, end_time, purpose, status";
+
+    private BookingArchiver() {
+    }
+
+    public static void main(String[] args) {
+        if (!SchemaMigrator.migrate()) {
+            System.err.println("Archive: could not bring the schema up to date");
+            System.exit(2);
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(HORIZON_DAYS);
+        long archived = archive(cutoff);
+        if (archived < 0) System.exit(1);
+        System.out.println("Archived " + archived + " bookings dated before " + cutoff);
+    }
+
+    /**
+     * Archives every approved or rejected booking dated before {@code cutoff}. Pending bookings
+     * are never archived, so the admin review list is unaffected.
+     *
+     * @return the number of bookings moved, or -1 if the run failed (batches moved before the
+     *         failure stay archived; running again continues from there)
+     */
+    public static long archive(LocalDate cutoff) {
+        if (!addMonthPartitions(YearMonth.from(cutoff.minusDays(1)))) return -1;
+        long total = 0;
+        try {
+            while (true) {
+                int moved = archiveBatch(Date.valueOf(cutoff));
+                if (moved < 0) return -1;
+                total += moved;
+                if (moved < BATCH_SIZE) break;
+                Thread.sleep(PAUSE_MS); // Let other transactions have the rows and the redo log
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (total > 0) DatabaseManager.changed(ChangeEventBus.BOOKINGS);
+        }
+        return total;
+    }
+
+    private static int archiveBatch(Date cutoff) {
+        Connection conn = DatabaseManager.getConnection("archiveBookings");
+        if (conn == null) return -1;
+        try (conn; Statement st = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            // Tells the usage rollup trigger these deletes are moves, not cancellations
+            st.execute("SET @hb_archiving = 1");
+            try {
+                List<Integer> ids = new ArrayList<>();
+                try (PreparedStatement ps = conn.prepareStatement(ARCHIVABLE_SQL)) {
+                    ps.setDate(1, cutoff);
+                    ps.setInt(2, BATCH_SIZE);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt(1));
+                        }
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    String in = " WHERE id IN (" + DatabaseManager.placeholders(ids.size()) + ")";
+                    executeForIds(conn, "INSERT INTO bookings_archive (" + COLUMNS + ") SELECT " + COLUMNS + " FROM Bookings" + in, ids);
+                    executeForIds(conn, "DELETE FROM Bookings" + in, ids);
+                }
+                conn.commit();
+                return ids.size();
+            } finally {
+                // Session variables outlive the borrow; the next user of this connection must not inherit it
+                st.execute("SET @hb_archiving = NULL");
+            }
+        } catch (SQLException e) {
+            // The pool rolls back the open transaction when the connection is returned.
+            System.err.println("Archive bookings error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static void executeForIds(Connection conn, String sql, List<Integer> ids) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setInt(i + 1, ids.get(i));
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Splits monthly partitions off p_future up to and including {@code last}, so each archived
+     * month lands in its own partition. The first partition created also takes everything older.
+     */
+    private static boolean addMonthPartitions(YearMonth last) {
+        Connection conn = DatabaseManager.getConnection("archiveBookings");
+        if (conn == null) return false;
+        try (conn) {
+            YearMonth next = firstMissingMonth(conn);
+            if (next == null) next = oldestArchivableMonth(conn);
+            if (next == null) return true; // Nothing to archive yet
+            try (Statement st = conn.createStatement()) {
+                for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+                    st.execute("ALTER TABLE bookings_archive REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO ("
+                            + "PARTITION p" + month.toString().replace("-", "")
+                            + " VALUES LESS THAN (TO_DAYS('" + month.plusMonths(1).atDay(1) + "')), "
+                            + "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Archive partition error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // The month after the newest monthly partition, or null if there is none yet.
+    private static YearMonth firstMissingMonth(Connection conn) throws SQLException {
+        String sql = "SELECT MAX(CAST(PARTITION_DESCRIPTION AS UNSIGNED)) FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'bookings_archive' AND PARTITION_NAME <> ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, FUTURE_PARTITION);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                long toDays = rs.getLong(1);
+                if (rs.wasNull()) return null;
+                // TO_DAYS counts from year 0; the bound is the first day of the following month
+                return YearMonth.from(LocalDate.of(0, 1, 1).plusDays(toDays));
+            }
+        }
+    }
+
+    private static YearMonth oldestArchivableMonth(Connection conn) throws SQLException {
+        String sql = "SELECT MIN(date) FROM Bookings WHERE status IN ('approved', 'rejected')";
+        try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            Date oldest = rs.next() ? rs.getDate(1) : null;
+            return oldest == null ? null : YearMonth.from(oldest.toLocalDate());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// BookingChanges.java
+// The bookings inserted, updated or deleted after a given change-log version.
+package com.mycompany.hall.booking.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingChanges {
+    private final long fromVersion;
+    private final long toVersion;
+    private final List<Booking> upserted;
+    private final List<Integer> insertedIds;
+    private final List<Integer> deletedIds;
+    private final boolean reloadRequired;
+
+    public BookingChanges(long fromVersion, long toVersion, List<Booking> upserted,
+                          List<Integer> insertedIds, List<Integer> deletedIds) {
+        this(fromVersion, toVersion, upserted, insertedIds, deletedIds, false);
+    }
+
+    private BookingChanges(long fromVersion, long toVersion, List<Booking> upserted,
+                           List<Integer> insertedIds, List<Integer> deletedIds, boolean reloadRequired) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.upserted = upserted;
+        this.insertedIds = insertedIds;
+        this.deletedIds = deletedIds;
+        this.reloadRequired = reloadRequired;
+    }
+
+    /**
+     * An empty change set, used when nothing changed since {@code version}.
+     */
+    public static BookingChanges none(long version) {
+        return new BookingChanges(version, version, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Returned when the changes after {@code fromVersion} were already pruned from the change log:
+     * the caller must reload its data and continue from {@code toVersion}.
+     */
+    public static BookingChanges reloadRequired(long fromVersion, long toVersion) {
+        return new BookingChanges(fromVersion, toVersion, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), true);
+    }
+
+    /**
+     * The same changes limited to one user's bookings. Deleted ids are kept as they are:
+     * the booking is gone, and only its id is listed.
+     */
+    public BookingChanges forUser(int userId) {
+        List<Booking> own = new ArrayList<>();
+        List<Integer> ownInserted = new ArrayList<>();
+        for (Booking booking : upserted) {
+            if (booking.getUserId() != userId) continue;
+            own.add(booking);
+            if (insertedIds.contains(booking.getId())) ownInserted.add(booking.getId());
+        }
+        return new BookingChanges(fromVersion, toVersion, own, ownInserted, deletedIds, reloadRequired);
+    }
+
+    public long getFromVersion() { return fromVersion; }
+
+    // Pass this to the next getBookingChangesSince call.
+    public long getToVersion() { return toVersion; }
+
+    // Current state of every booking that was inserted or updated (and still exists).
+    public List<Booking> getUpserted() { return upserted; }
+
+    // Ids among getUpserted() that did not exist at fromVersion.
+    public List<Integer> getInsertedIds() { return insertedIds; }
+
+    public List<Integer> getDeletedIds() { return deletedIds; }
+
+    // True if the changes could not be listed; see reloadRequired().
+    public boolean isReloadRequired() { return reloadRequired; }
+
+    public boolean isEmpty() {
+        return !reloadRequired && upserted.isEmpty() && deletedIds.isEmpty();
+    }
+}
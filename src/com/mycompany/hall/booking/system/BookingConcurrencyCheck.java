@@ -0,0 +1,154 @@
+// BookingConcurrencyCheck.java
+// Starts many threads that book the same room at the same time through DatabaseManager.createBooking
+// and fails unless exactly one of them gets the room, every round. Uses a throwaway user and room,
+// deleted again afterwards. Run with "ant check-booking-concurrency" against a dev database.
+package com.mycompany.hall.booking.system;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BookingConcurrencyCheck {
+
+    // Each can be overridden with -Dhallbooking.concurrencyCheck.<name>=<value>
+    private static final int THREADS = Integer.getInteger("hallbooking.concurrencyCheck.threads", 16);
+    private static final int ROUNDS = Integer.getInteger("hallbooking.concurrencyCheck.rounds", 20);
+
+    public static void main(String[] args) {
+        if (!SchemaMigrator.migrate()) {
+            System.err.println("Concurrency check: could not bring the schema up to date");
+            System.exit(2);
+        }
+
+        String tag = "concurrency-check-" + System.currentTimeMillis();
+        int userId = insert("INSERT INTO Users (name, email, password, role) VALUES (?, ?, ?, 'user')",
+                tag, tag + "@example.invalid", tag);
+        int roomId = userId < 0 ? -1 : insert("INSERT INTO Rooms (name, capacity) VALUES (?, 1)", tag);
+        if (roomId < 0) {
+            deleteUser(userId);
+            System.err.println("Concurrency check: could not create the test user and room");
+            System.exit(2);
+        }
+
+        List<String> failures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            // Far in the future so no real booking is in the way; one day per round
+            LocalDate firstDay = LocalDate.of(2100, 1, 1);
+            for (int round = 0; round < ROUNDS; round++) {
+                failures.addAll(runRound(executor, userId, roomId, Date.valueOf(firstDay.plusDays(round))));
+            }
+        } finally {
+            executor.shutdownNow();
+            if (!DatabaseManager.deleteRoom(roomId)) System.err.println("Concurrency check: could not delete test room " + tag);
+            deleteUser(userId);
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("Concurrency check passed (" + ROUNDS + " rounds of " + THREADS + " overlapping bookings).");
+            System.exit(0);
+        }
+        for (String failure : failures) {
+            System.err.println(failure);
+        }
+        System.exit(1);
+    }
+
+    /**
+     * Books the same slot from every thread at once.
+     * @return a message for each thing that went wrong; empty if exactly one booking was created
+     */
+    private static List<String> runRound(ExecutorService executor, int userId, int roomId, Date date) {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<BookingResult>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                Booking booking = new Booking(0, userId, roomId, date, Time.valueOf("10:00:00"), Time.valueOf("11:00:00"),
+                        "Concurrency check", "pending");
+                ready.countDown();
+                go.await();
+                return DatabaseManager.createBooking(booking);
+            }));
+        }
+
+        List<String> failures = new ArrayList<>();
+        int created = 0;
+        try {
+            ready.await();
+            go.countDown();
+            for (Future<BookingResult> future : results) {
+                BookingResult result = future.get();
+                if (result.getStatus() == BookingResult.Status.CREATED) {
+                    created++;
+                } else if (result.getStatus() == BookingResult.Status.ERROR) {
+                    failures.add("ERROR on " + date + ": " + result.getErrorMessage());
+                }
+            }
+        } catch (Exception e) {
+            failures.add("Round on " + date + " did not finish: " + e);
+            return failures;
+        }
+
+        if (created != 1) failures.add("OVERLAP on " + date + ": " + created + " of " + THREADS + " bookings were created");
+        int stored = countBookings(roomId, date);
+        if (stored != 1) failures.add("OVERLAP on " + date + ": " + stored + " bookings stored for the slot");
+        return failures;
+    }
+
+    // Inserts one row and returns its generated id, or -1.
+    private static int insert(String sql, String... values) {
+        Connection conn = DatabaseManager.getConnection("concurrencyCheck");
+        if (conn == null) return -1;
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < values.length; i++) {
+                ps.setString(i + 1, values[i]);
+            }
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                return keys.next() ? keys.getInt(1) : -1;
+            }
+        } catch (SQLException e) {
+            System.err.println("Concurrency check setup error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static int countBookings(int roomId, Date date) {
+        Connection conn = DatabaseManager.getConnection("concurrencyCheck");
+        if (conn == null) return -1;
+        try (conn; PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM Bookings WHERE room_id = ? AND date = ?")) {
+            ps.setInt(1, roomId);
+            ps.setDate(2, date);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        } catch (SQLException e) {
+            System.err.println("Concurrency check count error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static void deleteUser(int userId) {
+        if (userId < 0) return;
+        Connection conn = DatabaseManager.getConnection("concurrencyCheck");
+        if (conn == null) return;
+        try (conn; PreparedStatement ps = conn.prepareStatement("DELETE FROM Users WHERE id = ?")) {
+            ps.setInt(1, userId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Concurrency check cleanup error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+// BookingDataAccess.java
+// Everything the dashboards read and write. JdbcBookingDataAccess talks to MySQL directly;
+// remote.HttpBookingDataAccess talks to a BookingServer that owns the pool and the caches.
+// Errors follow DatabaseManager: null, false, -1 or an empty list rather than exceptions.
+package com.mycompany.hall.booking.system;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface BookingDataAccess {
+
+    /**
+     * True if the data source answers right now. The other calls return null, false or an
+     * empty list both when there is nothing and when it is unreachable; this tells them apart.
+     */
+    boolean isReachable();
+
+    /**
+     * The breaker in front of this data source: open while it cannot be reached, so calls fail
+     * fast. Listen to it to show the connection state.
+     */
+    CircuitBreaker getCircuitBreaker();
+
+    // Users
+    User validateLogin(String email, String password);
+    boolean registerUser(User user);
+    /**
+     * Looks up an account. Through a BookingServer this needs a login, and users may only look up their own.
+     */
+    User getUserByEmail(String email);
+
+    /**
+     * Ends the login made with validateLogin, if the data source keeps one.
+     */
+    void logout();
+
+    /**
+     * Called, on any thread, when the data source stops accepting the current login (it sat idle
+     * too long, or the server restarted); the user has to log in again. Replaces the previous handler.
+     */
+    void setSessionExpiredHandler(Runnable handler);
+
+    // Rooms
+    List<Room> getAvailableRooms();
+    boolean addRoom(Room room);
+    boolean updateRoom(int roomId, String name, int capacity);
+    boolean deleteRoom(int roomId);
+    List<Room> findFreeRooms(int minCapacity, LocalDate fromDate, LocalDate toDate, LocalTime start, LocalTime end);
+
+    // Bookings
+    BookingResult createBooking(Booking booking);
+    List<Booking> getBookingsByUser(int userId);
+    List<Booking> getPendingBookings();
+    /**
+     * See DatabaseManager.getBookingsPage; archived bookings are only included if asked for.
+     */
+    List<Booking> getBookingsPage(Date afterDate, int afterId, int limit, boolean includeArchive);
+    String getBookingPurpose(int bookingId);
+    long getCurrentChangeVersion();
+    BookingChanges getBookingChangesSince(long version);
+    int updateBookingStatuses(int[] bookingIds, String status);
+    int updatePendingBookingStatuses(int roomId, Date date, String status);
+    boolean deleteBooking(int bookingId);
+
+    /**
+     * Writes every booking to {@code target}; see BookingExporter.
+     * @return the number of bookings written
+     */
+    long exportBookings(Path target, BookingExporter.Format format, boolean gzip, BookingExporter.Listener listener)
+            throws IOException, SQLException;
+
+    // Usage reports, from the room_usage_daily rollup
+    List<RoomUsage> getRoomUsage(Date from, Date to, RoomUsage.Period period);
+
+    /**
+     * Recomputes the rollup from the bookings; see RoomUsageRollup.rebuild.
+     * @return the number of rooms rebuilt, or -1 on failure
+     */
+    int rebuildRoomUsage();
+
+    // Diagnostics: the metrics of whichever process talks to MySQL
+    List<OperationMetrics.Stats> getOperationStats();
+    List<QueryStatsInterceptor.Stats> getStatementStats();
+    String getPoolSummary();
+    void resetOperationStats();
+
+    // Change notifications
+    /**
+     * Calls the listener with a ChangeEventBus topic whenever bookings or rooms change.
+     */
+    void subscribeChanges(ChangeEventBus.Listener listener);
+
+    /**
+     * True if subscribeChanges sees every client's writes, so periodic polling is only a safety net;
+     * false if it only sees this process's own writes.
+     */
+    boolean isChangePushComplete();
+}
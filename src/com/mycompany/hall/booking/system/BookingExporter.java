@@ -0,0 +1,191 @@
+// BookingExporter.java
+// Streams every booking from a forward-only MySQL cursor straight into a CSV or JSON Lines file,
+// optionally gzipped, so memory use stays the same however many bookings there are.
+package com.mycompany.hall.booking.system;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+public class BookingExporter {
+
+    public enum Format { CSV, JSON_LINES }
+
+    /**
+     * Receives progress from the export thread and can stop the export early.
+     */
+    public interface Listener {
+        void progress(long rowsWritten, long totalRows);
+
+        boolean isCancelled();
+    }
+
+    private static final String[] COLUMNS = {"id", "user_id", "room_id", "date", "start_time", "end_time", "purpose", "status"};
+    private static final String SQL = "SELECT id, user_id, room_id, date, start_time, end_time, purpose, status FROM Bookings ORDER BY id";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_EVERY_ROWS = 1000;
+
+    private BookingExporter() {
+    }
+
+    /**
+     * Writes all bookings to {@code target}, replacing it if it exists.
+     * @return the number of rows written; fewer than the total if the listener cancelled
+     */
+    public static long export(Path target, Format format, boolean gzip, Listener listener) throws IOException, SQLException {
+        FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return export(Channels.newOutputStream(channel), format, gzip, listener);
+    }
+
+    /**
+     * Writes all bookings to {@code stream} and closes it; used by BookingServer to stream
+     * an export straight into an HTTP response.
+     */
+    public static long export(OutputStream stream, Format format, boolean gzip, Listener listener) throws IOException, SQLException {
+        Connection conn = DatabaseManager.getReadConnection("exportBookings");
+        if (conn == null) {
+            stream.close();
+            throw new SQLException("Database connection is not available");
+        }
+        try (conn; Writer out = openWriter(stream, gzip)) {
+            long totalRows = countBookings(conn);
+            try (PreparedStatement ps = conn.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Tells Connector/J to stream rows one at a time instead of buffering the whole result
+                ps.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return writeRows(rs, out, format, totalRows, listener, ps);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of bookings an export would write
+     */
+    public static long countBookings() throws SQLException {
+        Connection conn = DatabaseManager.getReadConnection("countBookings");
+        if (conn == null) throw new SQLException("Database connection is not available");
+        try (conn) {
+            return countBookings(conn);
+        }
+    }
+
+    private static long countBookings(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM Bookings");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static Writer openWriter(OutputStream stream, boolean gzip) throws IOException {
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, WRITE_BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    }
+
+    private static long writeRows(ResultSet rs, Writer out, Format format, long totalRows,
+                                  Listener listener, PreparedStatement ps) throws IOException, SQLException {
+        if (format == Format.CSV) {
+            out.write('\uFEFF'); // Lets spreadsheet programs detect UTF-8 (the purpose is usually Arabic)
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) out.write(',');
+                out.write(COLUMNS[i]);
+            }
+            out.write("\r\n");
+        }
+
+        long rows = 0;
+        String[] values = new String[COLUMNS.length];
+        while (rs.next()) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getString(i + 1);
+            }
+            if (format == Format.CSV) {
+                writeCsvRow(out, values);
+            } else {
+                writeJsonRow(out, values);
+            }
+            rows++;
+            if (rows % PROGRESS_EVERY_ROWS == 0) {
+                listener.progress(rows, totalRows);
+                if (listener.isCancelled()) {
+                    // Closing a streaming result reads it to the end; stop the query on the server first.
+                    ps.cancel();
+                    return rows;
+                }
+            }
+        }
+        listener.progress(rows, totalRows);
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer out, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            String value = values[i];
+            if (value == null) continue;
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static void writeJsonRow(Writer out, String[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            out.write('"');
+            out.write(COLUMNS[i]);
+            out.write("\":");
+            String value = values[i];
+            if (value == null) {
+                out.write("null");
+            } else if (i < 3) {
+                out.write(value); // The id columns are numbers
+            } else {
+                writeJsonString(out, value);
+            }
+        }
+        out.write("}\n");
+    }
+
+    private static void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,48 @@
+// BookingResult.java
+// Outcome of DatabaseManager.createBooking: created (with the new id), refused because the room
+// is already booked at that time (with the conflicting ids), or failed.
+package com.mycompany.hall.booking.system;
+
+import java.util.Collections;
+import java.util.List;
+
+public class BookingResult {
+
+    public enum Status { CREATED, CONFLICT, ERROR }
+
+    private final Status status;
+    private final int bookingId;
+    private final List<Integer> conflictingIds;
+    private final String errorMessage;
+
+    private BookingResult(Status status, int bookingId, List<Integer> conflictingIds, String errorMessage) {
+        this.status = status;
+        this.bookingId = bookingId;
+        this.conflictingIds = conflictingIds;
+        this.errorMessage = errorMessage;
+    }
+
+    public static BookingResult created(int bookingId) {
+        return new BookingResult(Status.CREATED, bookingId, Collections.emptyList(), null);
+    }
+
+    public static BookingResult conflict(List<Integer> conflictingIds) {
+        return new BookingResult(Status.CONFLICT, 0, Collections.unmodifiableList(conflictingIds), null);
+    }
+
+    public static BookingResult error(String errorMessage) {
+        return new BookingResult(Status.ERROR, 0, Collections.emptyList(), errorMessage);
+    }
+
+    public Status getStatus() { return status; }
+
+    public boolean isCreated() { return status == Status.CREATED; }
+
+    // Id of the new booking; only set when created.
+    public int getBookingId() { return bookingId; }
+
+    // Ids of the pending/approved bookings that overlap the requested time; only set on conflict.
+    public List<Integer> getConflictingIds() { return conflictingIds; }
+
+    public String getErrorMessage() { return errorMessage; }
+}
@@ -0,0 +1,52 @@
+// ChangeEventBus.java
+// In-process notifications that bookings or rooms changed. DatabaseManager publishes after each
+// committed write; dashboards in the same JVM and the BookingServer's event stream listen.
+// Events carry only the topic: listeners fetch what changed from the booking change log.
+package com.mycompany.hall.booking.system;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public final class ChangeEventBus {
+
+    public static final String BOOKINGS = "bookings";
+    public static final String ROOMS = "rooms";
+
+    private static final ChangeEventBus INSTANCE = new ChangeEventBus();
+
+    /**
+     * Called on the thread that made the change, so implementations must return quickly
+     * (e.g. by scheduling a refresh) and must not touch Swing components directly.
+     */
+    public interface Listener {
+        void changed(String topic);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private ChangeEventBus() {
+    }
+
+    public static ChangeEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void publish(String topic) {
+        for (Listener listener : listeners) {
+            try {
+                listener.changed(topic);
+            } catch (RuntimeException e) {
+                // One broken listener must not stop the others or fail the write that published
+                System.err.println("Change listener error: " + e.getMessage());
+            }
+        }
+    }
+}
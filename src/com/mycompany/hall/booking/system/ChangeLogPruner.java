@@ -0,0 +1,100 @@
+// ChangeLogPruner.java
+// Deletes booking_changes rows older than the retention window, in small batches, so the change
+// log that clients poll does not grow forever. A client whose version is older than what is left
+// gets BookingChanges.reloadRequired and loads its tables again. The newest row is always kept,
+// since the current change version is read from it. Run with "ant prune-change-log", e.g. nightly.
+package com.mycompany.hall.booking.system;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+public final class ChangeLogPruner {
+
+    // Each can be overridden with -Dhallbooking.changelog.<name>=<value>
+    private static final int RETENTION_DAYS = Integer.getInteger("hallbooking.changelog.retentionDays", 7);
+    private static final int BATCH_SIZE = Integer.getInteger("hallbooking.changelog.batchSize", 5000);
+    private static final long PAUSE_MS = Long.getLong("hallbooking.changelog.pauseMs", 100);
+
+    private static final String FIRST_RETAINED_SQL = "SELECT version FROM booking_changes "
+            + "WHERE changed_at >= ? ORDER BY changed_at, version LIMIT 1";
+
+    private ChangeLogPruner() {
+    }
+
+    public static void main(String[] args) {
+        if (!SchemaMigrator.migrate()) {
+            System.err.println("Prune: could not bring the schema up to date");
+            System.exit(2);
+        }
+        Instant cutoff = Instant.now().minus(RETENTION_DAYS, ChronoUnit.DAYS);
+        long pruned = prune(cutoff);
+        if (pruned < 0) System.exit(1);
+        System.out.println("Pruned " + pruned + " booking changes made before " + cutoff);
+    }
+
+    /**
+     * Deletes the change-log rows written before {@code cutoff}, except the newest row.
+     *
+     * @return the number of rows deleted, or -1 if the run failed (rows deleted before the
+     *         failure stay deleted; running again continues from there)
+     */
+    public static long prune(Instant cutoff) {
+        long lastPruned = lastPrunableVersion(Timestamp.from(cutoff));
+        if (lastPruned < 0) return -1;
+        long total = 0;
+        try {
+            while (true) {
+                int deleted = deleteBatch(lastPruned);
+                if (deleted < 0) return -1;
+                total += deleted;
+                if (deleted < BATCH_SIZE) break;
+                Thread.sleep(PAUSE_MS); // Let the pollers and the triggers have the table
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return total;
+    }
+
+    // The highest version that may be deleted: just below the first change inside the window,
+    // and never the newest change. 0 if there is nothing to delete, -1 on error.
+    private static long lastPrunableVersion(Timestamp cutoff) {
+        Connection conn = DatabaseManager.getConnection("pruneChangeLog");
+        if (conn == null) return -1;
+        try (conn) {
+            long newest;
+            try (PreparedStatement ps = conn.prepareStatement("SELECT COALESCE(MAX(version), 0) FROM booking_changes");
+                 ResultSet rs = ps.executeQuery()) {
+                newest = rs.next() ? rs.getLong(1) : 0;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(FIRST_RETAINED_SQL)) {
+                ps.setTimestamp(1, cutoff);
+                try (ResultSet rs = ps.executeQuery()) {
+                    long bound = rs.next() ? rs.getLong(1) - 1 : newest - 1;
+                    return Math.max(0, Math.min(bound, newest - 1));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Prune change log error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private static int deleteBatch(long lastPruned) {
+        Connection conn = DatabaseManager.getConnection("pruneChangeLog");
+        if (conn == null) return -1;
+        try (conn; PreparedStatement ps = conn.prepareStatement("DELETE FROM booking_changes WHERE version <= ? LIMIT ?")) {
+            ps.setLong(1, lastPruned);
+            ps.setInt(2, BATCH_SIZE);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Prune change log error: " + e.getMessage());
+            return -1;
+        }
+    }
+}
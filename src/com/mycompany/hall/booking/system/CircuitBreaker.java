@@ -0,0 +1,181 @@
+// CircuitBreaker.java
+// Stops callers from queueing up behind a data source that is down. After a few connection
+// failures in a row the breaker opens: calls fail at once instead of each waiting out the connect
+// timeout, and a background probe retries with exponential backoff until one succeeds and the
+// breaker closes again. DatabaseManager guards the MySQL pool with one; HttpBookingDataAccess
+// guards the booking server with another. The status bar and the change feed listen to it.
+package com.mycompany.hall.booking.system;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+public final class CircuitBreaker {
+
+    // Each can be overridden with -Dhallbooking.breaker.<name>=<value>
+    private static final int FAILURE_THRESHOLD = Integer.getInteger("hallbooking.breaker.failures", 3);
+    private static final long INITIAL_BACKOFF_MS = Long.getLong("hallbooking.breaker.initialBackoffMs", 1000);
+    private static final long MAX_BACKOFF_MS = Long.getLong("hallbooking.breaker.maxBackoffMs", 60000);
+
+    public enum State {
+        CLOSED,    // Calls go through
+        OPEN,      // Calls fail at once; a probe is scheduled
+        HALF_OPEN  // Calls fail at once; a probe is running
+    }
+
+    /**
+     * Called on the thread that changed the state, so implementations must return quickly
+     * and must not touch Swing components directly.
+     */
+    public interface Listener {
+        void stateChanged(State state);
+    }
+
+    private final String name;
+    private final BooleanSupplier probe;
+    private final ScheduledExecutorService prober;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long backoffMs = INITIAL_BACKOFF_MS;
+    private long nextProbeAtMillis;
+    private ScheduledFuture<?> scheduledProbe;
+
+    /**
+     * @param probe tries the data source directly, bypassing the breaker; true if it answered
+     */
+    public CircuitBreaker(String name, BooleanSupplier probe) {
+        this.name = name;
+        this.probe = probe;
+        this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name + "-breaker-probe");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * True if a call may go ahead; false while the breaker is open and the call should fail fast.
+     */
+    public synchronized boolean allowRequest() {
+        return state == State.CLOSED;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * When the next probe runs, as System.currentTimeMillis(); only meaningful while OPEN.
+     */
+    public synchronized long getNextProbeAtMillis() {
+        return nextProbeAtMillis;
+    }
+
+    /**
+     * A connection was made; clears the failure count and closes the breaker if a call
+     * that started before it opened got through after all.
+     */
+    public void recordSuccess() {
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state == State.CLOSED) return;
+            close();
+        }
+        notifyListeners(State.CLOSED);
+    }
+
+    /**
+     * A connection attempt failed because the data source could not be reached.
+     * Other errors (bad SQL, access denied, an exhausted pool) should not be recorded.
+     */
+    public void recordFailure() {
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state != State.CLOSED || consecutiveFailures < FAILURE_THRESHOLD) return;
+            System.err.println("Circuit breaker " + name + " opened after " + consecutiveFailures + " connection failures");
+            backoffMs = INITIAL_BACKOFF_MS;
+            scheduleProbe(backoffMs);
+        }
+        notifyListeners(State.OPEN);
+    }
+
+    /**
+     * Probes now instead of waiting out the backoff, e.g. when the user asks to retry.
+     */
+    public void retryNow() {
+        synchronized (this) {
+            if (state != State.OPEN) return;
+            scheduledProbe.cancel(false);
+            scheduleProbe(0);
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Caller holds the lock.
+    private void scheduleProbe(long delayMs) {
+        state = State.OPEN;
+        nextProbeAtMillis = System.currentTimeMillis() + delayMs;
+        scheduledProbe = prober.schedule(this::runProbe, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Caller holds the lock.
+    private void close() {
+        if (scheduledProbe != null) scheduledProbe.cancel(false);
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        backoffMs = INITIAL_BACKOFF_MS;
+        System.err.println("Circuit breaker " + name + " closed: connection restored");
+    }
+
+    private void runProbe() {
+        synchronized (this) {
+            if (state != State.OPEN) return; // Closed meanwhile by a call that got through
+            state = State.HALF_OPEN;
+        }
+        notifyListeners(State.HALF_OPEN);
+
+        boolean reachable;
+        try {
+            reachable = probe.getAsBoolean();
+        } catch (RuntimeException e) {
+            reachable = false;
+        }
+
+        State next;
+        synchronized (this) {
+            if (state != State.HALF_OPEN) return;
+            if (reachable) {
+                close();
+            } else {
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                scheduleProbe(backoffMs);
+            }
+            next = state;
+        }
+        notifyListeners(next);
+    }
+
+    private void notifyListeners(State newState) {
+        for (Listener listener : listeners) {
+            try {
+                listener.stateChanged(newState);
+            } catch (RuntimeException e) {
+                System.err.println("Circuit breaker listener error: " + e.getMessage());
+            }
+        }
+    }
+}
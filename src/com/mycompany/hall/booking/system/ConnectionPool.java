@@ -0,0 +1,385 @@
+// ConnectionPool.java
+// A small bounded JDBC connection pool used by DatabaseManager.
+package com.mycompany.hall.booking.system;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ConnectionPool {
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minIdle;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final long leakThresholdMillis;
+    private final boolean leakStackTraces;
+
+    // Permits bound the number of physical connections handed out at once.
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> inUse = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Creates a pool and starts its housekeeper. Physical connections are opened lazily on borrow
+     * and topped up to {@code minIdle} in the background.
+     *
+     * @param leakThresholdMillis how long a connection may stay borrowed before it is reported
+     *                            as a possible leak; 0 turns leak detection off
+     * @param leakStackTraces     also record where each connection was borrowed, so leak reports
+     *                            carry a stack trace; costs a stack walk per borrow
+     */
+    public static ConnectionPool start(String url, Properties connectionProperties, int minIdle, int maxSize,
+                                       long borrowTimeoutMillis, long validationIntervalMillis,
+                                       long leakThresholdMillis, boolean leakStackTraces) {
+        ConnectionPool pool = new ConnectionPool(url, connectionProperties, minIdle, maxSize,
+                borrowTimeoutMillis, validationIntervalMillis, leakThresholdMillis, leakStackTraces);
+        pool.housekeeper.scheduleWithFixedDelay(pool::housekeep, 5, 5, TimeUnit.SECONDS);
+        return pool;
+    }
+
+    private ConnectionPool(String url, Properties connectionProperties, int minIdle, int maxSize,
+                           long borrowTimeoutMillis, long validationIntervalMillis,
+                           long leakThresholdMillis, boolean leakStackTraces) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool bounds: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.leakStackTraces = leakThresholdMillis > 0 && leakStackTraces;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Borrows a connection. Closing the returned connection gives it back to the pool.
+     *
+     * @throws SQLTransientConnectionException if no connection became free within the borrow timeout
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        recordWait(System.nanoTime() - waitStart);
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTransientConnectionException("Timed out after " + borrowTimeoutMillis
+                    + " ms waiting for a connection (pool size " + maxSize + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(openPhysical());
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowerThread = Thread.currentThread().getName();
+            pooled.borrower = leakStackTraces ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            inUse.add(pooled);
+            borrowCount.increment();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens connections until {@code minIdle} are idle; used to warm up the pool.
+     * Each connection is opened under a permit, like a borrow, so warm-up racing with
+     * borrowers never takes the pool past {@code maxSize}.
+     */
+    public void fillToMinIdle() {
+        while (!closed && idle.size() < minIdle) {
+            if (!permits.tryAcquire()) return; // Every permit is out; the pool is busy, not cold
+            try {
+                if (idle.size() + inUse.size() >= maxSize) return;
+                idle.offerFirst(new PooledConnection(openPhysical()));
+            } catch (SQLException e) {
+                System.err.println("Connection pool warm-up error: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(
+            inUse.size(), idle.size(), maxSize,
+            borrowCount.sum(), timeoutCount.sum(),
+            createdCount.sum(), destroyedCount.sum(), leakCount.sum(),
+            totalWaitNanos.sum(), maxWaitNanos.get());
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            // Only connections that sat idle for a while are re-validated; a hot
+            // connection returned moments ago is assumed to be healthy.
+            if (System.currentTimeMillis() - pooled.returnedAt < validationIntervalMillis || isValid(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, connectionProperties);
+        createdCount.increment();
+        return conn;
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        inUse.remove(pooled);
+        boolean reusable = !closed;
+        try {
+            if (reusable && pooled.physical.isClosed()) {
+                reusable = false;
+            }
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction.
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable && pooled.readOnly) {
+                // Borrowed for a replica read; the next borrower may want to write.
+                pooled.physical.setReadOnly(false);
+                pooled.readOnly = false;
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        if (reusable) {
+            pooled.returnedAt = System.currentTimeMillis();
+            pooled.borrowerThread = null;
+            pooled.borrower = null;
+            idle.offerFirst(pooled);
+        } else {
+            destroy(pooled);
+        }
+        permits.release();
+    }
+
+    private void destroy(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // Already broken, nothing else to do.
+        }
+        destroyedCount.increment();
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void housekeep() {
+        if (leakThresholdMillis > 0) reportLeaks();
+        fillToMinIdle();
+    }
+
+    private void reportLeaks() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : inUse) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                leakCount.increment();
+                System.err.println("Possible connection leak: connection held for "
+                        + (now - pooled.borrowedAt) + " ms by thread " + pooled.borrowerThread
+                        + (leakStackTraces ? "" : " (set -Dhallbooking.pool.leakStackTraces=true to see where)"));
+                Throwable borrower = pooled.borrower;
+                if (borrower != null) {
+                    borrower.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * One physical connection plus the bookkeeping the pool needs for it.
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        volatile long borrowedAt;
+        volatile long returnedAt = System.currentTimeMillis();
+        volatile String borrowerThread;
+        volatile Throwable borrower; // Only when leakStackTraces is on
+        volatile boolean leakReported;
+        volatile boolean readOnly; // Tracked here so giveBack need not ask the driver
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this));
+        }
+    }
+
+    /**
+     * The object handed to callers. close() returns the connection to the pool
+     * exactly once; any use afterwards fails like a closed JDBC connection would.
+     */
+    private final class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (pooled != null) {
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        giveBack(returning);
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "setReadOnly":
+                    if (pooled == null) throw new SQLException("Connection is closed");
+                    pooled.physical.setReadOnly((Boolean) args[0]);
+                    pooled.readOnly = (Boolean) args[0];
+                    return null;
+                case "toString":
+                    return "PooledConnection[" + (pooled == null ? "closed" : pooled.physical) + "]";
+                default:
+                    if (pooled == null) throw new SQLException("Connection is closed");
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    /**
+     * Point-in-time pool metrics.
+     */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long destroyedCount;
+        private final long leakCount;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        PoolStats(int active, int idle, int maxSize, long borrowCount, long timeoutCount,
+                  long createdCount, long destroyedCount, long leakCount,
+                  long totalWaitNanos, long maxWaitNanos) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.destroyedCount = destroyedCount;
+            this.leakCount = leakCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getDestroyedCount() { return destroyedCount; }
+        public long getLeakCount() { return leakCount; }
+        public long getTotalWaitNanos() { return totalWaitNanos; }
+        public long getMaxWaitNanos() { return maxWaitNanos; }
+
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d max=%d borrows=%d timeouts=%d leaks=%d avgWait=%.3fms maxWait=%.3fms",
+                active, idle, maxSize, borrowCount, timeoutCount, leakCount,
+                getAverageWaitMillis(), maxWaitNanos / 1_000_000.0);
+        }
+    }
+}
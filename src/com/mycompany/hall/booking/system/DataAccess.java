@@ -0,0 +1,33 @@
+// DataAccess.java
+// Picks how this client reaches the data: through a BookingServer when -Dhallbooking.serverUrl
+// is set (e.g. http://server:8085), otherwise straight to MySQL.
+package com.mycompany.hall.booking.system;
+
+import com.mycompany.hall.booking.system.remote.HttpBookingDataAccess;
+
+public final class DataAccess {
+
+    private static final BookingDataAccess INSTANCE = create();
+
+    private DataAccess() {
+    }
+
+    public static BookingDataAccess get() {
+        return INSTANCE;
+    }
+
+    /**
+     * True when this client goes through a BookingServer and has no database of its own.
+     */
+    public static boolean isRemote() {
+        return INSTANCE instanceof HttpBookingDataAccess;
+    }
+
+    private static BookingDataAccess create() {
+        String serverUrl = System.getProperty("hallbooking.serverUrl");
+        if (serverUrl == null || serverUrl.isBlank()) {
+            return new JdbcBookingDataAccess();
+        }
+        return new HttpBookingDataAccess(serverUrl);
+    }
+}
@@ -3,24 +3,224 @@ package com.mycompany.hall.booking.system;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
 
 public class DatabaseManager {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/hallbooking";
+    private static final String SOURCE_HOST = "localhost:3306";
+    private static final String DATABASE = "hallbooking";
+    private static final String URL = "jdbc:mysql://" + SOURCE_HOST + "/" + DATABASE;
     private static final String USER = "root";
     private static final String PASSWORD = "";
-    
+
+    // Pool sizing; each can be overridden with -Dhallbooking.pool.<name>=<value>
+    private static final int POOL_MIN_IDLE = Integer.getInteger("hallbooking.pool.minIdle", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("hallbooking.pool.maxSize", 10);
+    private static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("hallbooking.pool.borrowTimeoutMs", 5000);
+    private static final long POOL_VALIDATION_INTERVAL_MS = Long.getLong("hallbooking.pool.validationIntervalMs", 30000);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("hallbooking.pool.leakThresholdMs", 60000);
+    private static final boolean POOL_LEAK_STACK_TRACES = Boolean.getBoolean("hallbooking.pool.leakStackTraces");
+
+    // How long the driver tries to reach MySQL before giving up on a new connection
+    private static final int CONNECT_TIMEOUT_MS = Integer.getInteger("hallbooking.db.connectTimeoutMs", 5000);
+
+    // Opens after repeated connection failures so calls fail fast until MySQL is back; see CircuitBreaker.
+    private static final CircuitBreaker BREAKER = new CircuitBreaker("database", DatabaseManager::probe);
+
+    // Read replicas, e.g. -Dhallbooking.db.replicas=replica1:3306,replica2:3306. When set, the pool
+    // uses Connector/J's replication URL and getReadConnection marks connections read-only,
+    // which the driver routes to a replica; everything else keeps going to the source.
+    private static final String REPLICAS = System.getProperty("hallbooking.db.replicas", "").trim();
+    // After a write, reads stay on the source this long so a refresh sees it despite replica lag.
+    private static final long READ_YOUR_WRITES_MS = Long.getLong("hallbooking.db.readYourWritesMs", 5000);
+    private static volatile long lastWriteMillis;
+
+    // Most ids bound into one IN (...) list by the bulk status updates
+    private static final int BULK_CHUNK_SIZE = 500;
+
+    // createBooking runs its transaction again after a deadlock, up to this many times in all
+    private static final int CREATE_BOOKING_ATTEMPTS = 3;
+
+    // List views fetch only this many characters of the purpose text; see getBookingPurpose.
+    static final int PURPOSE_PREVIEW_LENGTH = 80;
+
+    private static final String KEYSET = "(b.date < ? OR (b.date = ? AND b.id < ?))";
+
+    // Hot booking queries; package-private so QueryPlanCheck can EXPLAIN them against the indexes.
+    // Each selects just the columns its view shows, with a purpose preview instead of the full text.
+    static final String BOOKINGS_BY_USER_SQL = "SELECT b.id, b.user_id, b.room_id, b.date, b.start_time, b.end_time, b.status, "
+            + "LEFT(b.purpose, " + PURPOSE_PREVIEW_LENGTH + ") AS purpose_preview, "
+            + "CHAR_LENGTH(b.purpose) > " + PURPOSE_PREVIEW_LENGTH + " AS purpose_truncated, r.name AS room_name "
+            + "FROM Bookings b JOIN Rooms r ON b.room_id = r.id "
+            + "WHERE b.user_id = ? ORDER BY b.date DESC";
+    // Admin lists: each booking with its user's name and email and its room's name, joined in one query.
+    private static final String ADMIN_BOOKING_LIST = adminBookingList("Bookings");
+    static final String PENDING_BOOKINGS_SQL = ADMIN_BOOKING_LIST + "WHERE b.status = 'pending' ORDER BY b.date ASC";
+    static final String FIRST_BOOKINGS_PAGE_SQL = ADMIN_BOOKING_LIST + "ORDER BY b.date DESC, b.id DESC LIMIT ?";
+    static final String NEXT_BOOKINGS_PAGE_SQL = ADMIN_BOOKING_LIST + "WHERE " + KEYSET + " ORDER BY b.date DESC, b.id DESC LIMIT ?";
+    // The same pages from bookings_archive (see BookingArchiver), for the "include archive" views
+    static final String FIRST_ARCHIVE_PAGE_SQL = adminBookingList("bookings_archive") + "ORDER BY b.date DESC, b.id DESC LIMIT ?";
+    static final String NEXT_ARCHIVE_PAGE_SQL = adminBookingList("bookings_archive")
+            + "WHERE " + KEYSET + " ORDER BY b.date DESC, b.id DESC LIMIT ?";
+    static final String UPCOMING_BOOKINGS_SQL = "SELECT id, user_id, room_id, date, start_time, end_time, status FROM Bookings WHERE date >= ?";
+    static final String BOOKING_CHANGES_SQL = "SELECT ch.booking_id, ch.last_version, ch.inserted, "
+            + "b.id, b.user_id, b.room_id, b.date, b.start_time, b.end_time, b.status, "
+            + "LEFT(b.purpose, " + PURPOSE_PREVIEW_LENGTH + ") AS purpose_preview, "
+            + "CHAR_LENGTH(b.purpose) > " + PURPOSE_PREVIEW_LENGTH + " AS purpose_truncated, "
+            + "u.name AS user_name, u.email AS user_email, r.name AS room_name "
+            + "FROM (SELECT booking_id, MAX(version) AS last_version, MAX(operation = 'I') AS inserted "
+            + "      FROM booking_changes WHERE version > ? GROUP BY booking_id) ch "
+            + "LEFT JOIN Bookings b ON b.id = ch.booking_id "
+            + "LEFT JOIN Users u ON u.id = b.user_id "
+            + "LEFT JOIN Rooms r ON r.id = b.room_id";
+    static final String CHANGE_LOG_RANGE_SQL = "SELECT MIN(version), MAX(version) FROM booking_changes";
+    static final String OVERLAPPING_BOOKINGS_SQL = "SELECT id FROM Bookings WHERE room_id = ? AND date = ? "
+            + "AND start_time < ? AND end_time > ? AND status IN ('pending', 'approved')";
+    static final String PENDING_FOR_ROOM_DAY_SQL = "SELECT id FROM Bookings WHERE status = 'pending' AND room_id = ? AND date = ? FOR UPDATE";
+
+    private static String adminBookingList(String table) {
+        return "SELECT b.id, b.user_id, b.room_id, b.date, b.start_time, b.end_time, b.status, "
+                + "LEFT(b.purpose, " + PURPOSE_PREVIEW_LENGTH + ") AS purpose_preview, "
+                + "CHAR_LENGTH(b.purpose) > " + PURPOSE_PREVIEW_LENGTH + " AS purpose_truncated, "
+                + "u.name AS user_name, u.email AS user_email, r.name AS room_name "
+                + "FROM " + table + " b JOIN Users u ON u.id = b.user_id JOIN Rooms r ON r.id = b.room_id ";
+    }
+
+    /**
+     * Lazily creates the shared pool the first time a connection is needed.
+     */
+    private static final class PoolHolder {
+        static final ConnectionPool POOL = createPool();
+
+        private static ConnectionPool createPool() {
+            try {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                System.err.println("Database driver not found: " + e.getMessage());
+            }
+            Properties props = new Properties();
+            props.setProperty("user", USER);
+            props.setProperty("password", PASSWORD);
+            props.setProperty("connectTimeout", String.valueOf(CONNECT_TIMEOUT_MS));
+            // Times every statement by fingerprint; see the Diagnostics tab and the slow SQL log
+            props.setProperty("queryInterceptors", QueryStatsInterceptor.class.getName());
+            String url = URL;
+            if (!REPLICAS.isEmpty()) {
+                url = "jdbc:mysql:replication://" + SOURCE_HOST + "," + REPLICAS + "/" + DATABASE;
+                props.setProperty("readFromSourceWhenNoReplicas", "true"); // Keep reading if every replica is down
+            }
+            return ConnectionPool.start(url, props, POOL_MIN_IDLE, POOL_MAX_SIZE, POOL_BORROW_TIMEOUT_MS,
+                    POOL_VALIDATION_INTERVAL_MS, POOL_LEAK_THRESHOLD_MS, POOL_LEAK_STACK_TRACES);
+        }
+    }
+
+    /**
+     * Borrows a pooled connection. Callers must close it to return it to the pool.
+     * Returns null at once, without trying, while the circuit breaker is open.
+     */
     public static Connection getConnection() {
-         try {
-             Class.forName("com.mysql.cj.jdbc.Driver");
-             Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-             System.out.println("Database connection successful.");
-             return conn;
-         } catch (ClassNotFoundException | SQLException e) {
-             System.err.println("Database connection error: " + e.getMessage());
-             return null;
-         }
-     }
+        if (!BREAKER.allowRequest()) return null;
+        try {
+            Connection conn = PoolHolder.POOL.borrow();
+            BREAKER.recordSuccess();
+            return conn;
+        } catch (SQLException e) {
+            if (isConnectFailure(e)) BREAKER.recordFailure();
+            System.err.println("Database connection error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The breaker in front of the pool, for showing the connection state.
+     */
+    public static CircuitBreaker getCircuitBreaker() {
+        return BREAKER;
+    }
+
+    // SQLState class 08 is "connection exception": MySQL could not be reached. A pool that is
+    // merely busy (no SQLState) or a refused login (28000) says nothing about reachability.
+    private static boolean isConnectFailure(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("08");
+    }
+
+    // The breaker's probe: one real connection attempt, around the breaker itself.
+    private static boolean probe() {
+        try (Connection conn = PoolHolder.POOL.borrow()) {
+            return conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Borrows a connection for one DatabaseManager operation. The call's latency, pool wait and
+     * errors are recorded under that name in OperationMetrics when the connection is closed.
+     */
+    public static Connection getConnection(String operation) {
+        long start = System.nanoTime();
+        Connection conn = getConnection();
+        long waited = System.nanoTime() - start;
+        if (conn == null) {
+            OperationMetrics.recordFailedBorrow(operation, waited);
+            return null;
+        }
+        return OperationMetrics.track(operation, conn, waited);
+    }
+
+    /**
+     * Opens the pool's minimum idle connections now, e.g. behind the splash screen.
+     */
+    public static void warmUpPool() {
+        PoolHolder.POOL.fillToMinIdle();
+    }
+
+    /**
+     * Borrows a connection for a read-only operation. With replicas configured it is routed to a
+     * replica, unless this process wrote something in the last READ_YOUR_WRITES_MS.
+     * The pool switches it back to read-write when it is returned.
+     */
+    public static Connection getReadConnection(String operation) {
+        Connection conn = getConnection(operation);
+        if (conn == null || REPLICAS.isEmpty()) return conn;
+        if (System.currentTimeMillis() - lastWriteMillis < READ_YOUR_WRITES_MS) return conn;
+        try {
+            conn.setReadOnly(true);
+        } catch (SQLException e) {
+            // The source can answer the read just as well
+            System.err.println("Read replica routing error: " + e.getMessage());
+        }
+        return conn;
+    }
+
+    // A write committed: pin reads to the source for a moment, then tell listeners.
+    static void changed(String topic) {
+        lastWriteMillis = System.currentTimeMillis();
+        ChangeEventBus.getInstance().publish(topic);
+    }
+
+    /**
+     * True if a connection can be borrowed and answers a ping; tells "no rows" from "no database".
+     */
+    public static boolean isReachable() {
+        Connection conn = getConnection("isReachable");
+        if (conn == null) return false;
+        try (conn) {
+            return conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Current pool metrics (active/idle connections, borrow wait times, leaks).
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return PoolHolder.POOL.getStats();
+    }
 
 
     /*==============================================*
@@ -28,22 +228,16 @@ public class DatabaseManager {
      *==============================================*/
 
     public static User validateLogin(String email, String password) {
-        Connection conn = getConnection();
+        Connection conn = getReadConnection("validateLogin");
         if (conn == null) return null;
         User user = null;
         String sql = "SELECT * FROM Users WHERE email = ? AND password = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, email);
             ps.setString(2, password);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                user = new User(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("password"),
-                    rs.getString("role")
-                );
+                user = RowMappers.users(rs).mapRow(rs);
             }
         } catch (SQLException e) {
             System.err.println("Login error: " + e.getMessage());
@@ -52,15 +246,17 @@ public class DatabaseManager {
     }
 
     public static boolean registerUser(User user) {
-        Connection conn = getConnection();
+        Connection conn = getConnection("registerUser");
         if (conn == null) return false;
         String sql = "INSERT INTO Users (name, email, password, role) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, user.getName());
             ps.setString(2, user.getEmail());
             ps.setString(3, user.getPassword());
             ps.setString(4, user.getRole());
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) return false;
+            lastWriteMillis = System.currentTimeMillis(); // The new user logs in right after signing up
+            return true;
         } catch (SQLException e) {
             System.err.println("User registration error: " + e.getMessage());
             return false;
@@ -69,20 +265,15 @@ public class DatabaseManager {
     
     public static User getUserByEmail(String email) {
         // Check if a user already exists before registration.
-        Connection conn = getConnection();
+        Connection conn = getReadConnection("getUserByEmail");
         if (conn == null) return null;
         User user = null;
         String sql = "SELECT * FROM Users WHERE email = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, email);
             ResultSet rs = ps.executeQuery();
             if (rs.next()) {
-                user = new User();
-                user.setId(rs.getInt("id"));
-                user.setName(rs.getString("name"));
-                user.setEmail(rs.getString("email"));
-                user.setPassword(rs.getString("password"));
-                user.setRole(rs.getString("role"));
+                user = RowMappers.users(rs).mapRow(rs);
             }
         } catch (SQLException e) {
             System.err.println("Get user by email error: " + e.getMessage());
@@ -95,37 +286,51 @@ public class DatabaseManager {
      * ROOM METHODS                 *
      *==============================================*/
     
+    /**
+     * All rooms ordered by name, served from {@link RoomCache}. The returned list is a fresh copy.
+     */
     public static ArrayList<Room> getAvailableRooms() {
-        Connection conn = getConnection();
-        ArrayList<Room> rooms = new ArrayList<>();
-        if (conn == null) return rooms;
+        return new ArrayList<>(RoomCache.getInstance().getRooms());
+    }
+
+    /**
+     * Reads the rooms straight from the database; used by {@link RoomCache} to fill itself.
+     * @return the rooms, or null if the database could not be read
+     */
+    static ArrayList<Room> queryRooms() {
+        Connection conn = getReadConnection("queryRooms");
+        if (conn == null) return null;
         String sql = "SELECT * FROM Rooms ORDER BY name ASC";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                rooms.add(new Room(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getInt("capacity")
-                ));
-            }
+            return RowMapper.mapAll(rs, RowMappers.rooms(rs));
         } catch (SQLException e) {
             System.err.println("Get available rooms error: " + e.getMessage());
+            return null;
         }
-        return rooms;
+    }
+
+    // Rooms were written: drop everything that caches the room list.
+    private static void roomsChanged() {
+        RoomCache.getInstance().invalidate();
+        RoomSearchIndex.getInstance().invalidateRooms();
+        changed(ChangeEventBus.ROOMS);
     }
 
     
     public static boolean addRoom(Room room) {
         String sql = "INSERT INTO rooms (name, capacity) VALUES (?, ?)";
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = getConnection("addRoom");
+        if (conn == null) return false;
+
+        try (conn; PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, room.getName());
             stmt.setInt(2, room.getCapacity());
 
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) roomsChanged();
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -137,14 +342,17 @@ public class DatabaseManager {
     public static boolean updateRoom(int roomId, String name, int capacity) {
         String sql = "UPDATE rooms SET name = ?, capacity = ? WHERE id = ?";
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = getConnection("updateRoom");
+        if (conn == null) return false;
+
+        try (conn; PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, name);
             stmt.setInt(2, capacity);
             stmt.setInt(3, roomId);
 
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) roomsChanged();
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -153,18 +361,42 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * Deletes a room and its bookings in one transaction. The bookings are deleted first, by
+     * this statement rather than by the foreign key cascade, because MySQL does not fire
+     * triggers for cascaded deletes and the change log and usage rollup rely on them.
+     */
     public static boolean deleteRoom(int roomId) {
-        String sql = "DELETE FROM rooms WHERE id = ?";
-
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Connection conn = getConnection("deleteRoom");
+        if (conn == null) return false;
 
-            stmt.setInt(1, roomId);
+        try (conn) {
+            conn.setAutoCommit(false);
+            List<Integer> bookingIds = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id FROM Bookings WHERE room_id = ? FOR UPDATE")) {
+                ps.setInt(1, roomId);
+                collectIds(ps, bookingIds);
+            }
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM Bookings WHERE room_id = ?")) {
+                ps.setInt(1, roomId);
+                ps.executeUpdate();
+            }
+            int rowsAffected;
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM rooms WHERE id = ?")) {
+                ps.setInt(1, roomId);
+                rowsAffected = ps.executeUpdate();
+            }
+            conn.commit();
 
-            int rowsAffected = stmt.executeUpdate();
+            for (int bookingId : bookingIds) {
+                AvailabilityIndex.getInstance().onBookingDeleted(bookingId);
+            }
+            if (!bookingIds.isEmpty()) changed(ChangeEventBus.BOOKINGS);
+            if (rowsAffected > 0) roomsChanged();
             return rowsAffected > 0;
 
         } catch (SQLException e) {
+            // The pool rolls back the open transaction when the connection is returned.
             e.printStackTrace();
             return false;
         }
@@ -175,11 +407,68 @@ public class DatabaseManager {
      * BOOKING METHODS                *
      *==============================================*/
 
-    public static boolean createBooking(Booking booking) {
-        Connection conn = getConnection();
-        if (conn == null) return false;
-        String sql = "INSERT INTO Bookings (user_id, room_id, date, start_time, end_time, purpose, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    /**
+     * Saves a new booking. Pending and approved bookings may not overlap another pending or
+     * approved booking of the same room; the database enforces this even when several
+     * clients book at the same moment, by locking the room's day (see room_day_locks).
+     * The local AvailabilityIndex is not consulted: it only catches up with other clients'
+     * deletes and rejections when the change feed is polled, so it could refuse a free slot.
+     */
+    public static BookingResult createBooking(Booking booking) {
+        boolean blocking = AvailabilityIndex.isBlocking(booking.getStatus());
+        for (int attempt = 1; ; attempt++) {
+            Connection conn = getConnection("createBooking");
+            if (conn == null) return BookingResult.error("Database connection is not available");
+            try (conn) {
+                conn.setAutoCommit(false);
+                if (blocking) {
+                    lockRoomDay(conn, booking.getRoomId(), booking.getDate());
+                    List<Integer> conflicts = findOverlappingBookings(conn, booking);
+                    if (!conflicts.isEmpty()) {
+                        conn.rollback();
+                        return BookingResult.conflict(conflicts);
+                    }
+                }
+                int bookingId = insertBooking(conn, booking);
+                conn.commit();
+                booking.setId(bookingId);
+                AvailabilityIndex.getInstance().onBookingCreated(booking);
+                changed(ChangeEventBus.BOOKINGS);
+                return BookingResult.created(bookingId);
+            } catch (SQLException e) {
+                // The pool rolls back the open transaction when the connection is returned.
+                if (isTransient(e) && attempt < CREATE_BOOKING_ATTEMPTS) continue;
+                System.err.println("Create booking error: " + e.getMessage());
+                return BookingResult.error(e.getMessage());
+            }
+        }
+    }
+
+    // Takes the room-day row lock, creating the row the first time the day is booked.
+    private static void lockRoomDay(Connection conn, int roomId, Date date) throws SQLException {
+        String sql = "INSERT INTO room_day_locks (room_id, date) VALUES (?, ?) ON DUPLICATE KEY UPDATE room_id = room_id";
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, roomId);
+            ps.setDate(2, date);
+            ps.executeUpdate();
+        }
+    }
+
+    private static List<Integer> findOverlappingBookings(Connection conn, Booking booking) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(OVERLAPPING_BOOKINGS_SQL)) {
+            ps.setInt(1, booking.getRoomId());
+            ps.setDate(2, booking.getDate());
+            ps.setTime(3, booking.getEndTime());
+            ps.setTime(4, booking.getStartTime());
+            collectIds(ps, ids);
+        }
+        return ids;
+    }
+
+    private static int insertBooking(Connection conn, Booking booking) throws SQLException {
+        String sql = "INSERT INTO Bookings (user_id, room_id, date, start_time, end_time, purpose, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setInt(1, booking.getUserId());
             ps.setInt(2, booking.getRoomId());
             ps.setDate(3, booking.getDate());
@@ -187,37 +476,30 @@ public class DatabaseManager {
             ps.setTime(5, booking.getEndTime());
             ps.setString(6, booking.getPurpose());
             ps.setString(7, booking.getStatus());
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Create booking error: " + e.getMessage());
-            return false;
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) throw new SQLException("No id generated for the new booking");
+                return keys.getInt(1);
+            }
         }
     }
 
+    // Deadlocks and lock wait timeouts roll the transaction back; running it again is safe.
+    private static boolean isTransient(SQLException e) {
+        return e.getErrorCode() == 1213 || e.getErrorCode() == 1205 || "40001".equals(e.getSQLState());
+    }
+
     public static ArrayList<Booking> getBookingsByUser(int userId) {
-        Connection conn = getConnection();
+        Connection conn = getReadConnection("getBookingsByUser");
         ArrayList<Booking> bookings = new ArrayList<>();
         if (conn == null) return bookings;
         
-        String sql = "SELECT b.*, r.name as room_name FROM Bookings b " +
-                     "JOIN Rooms r ON b.room_id = r.id " +
-                     "WHERE b.user_id = ? ORDER BY b.date DESC";
-                     
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(BOOKINGS_BY_USER_SQL)) {
             ps.setInt(1, userId);
             ResultSet rs = ps.executeQuery();
+            RowMapper<Booking> mapper = RowMappers.bookings(rs);
             while (rs.next()) {
-                Booking booking = new Booking();
-                booking.setId(rs.getInt("id"));
-                booking.setUserId(rs.getInt("user_id"));
-                booking.setRoomId(rs.getInt("room_id"));
-                booking.setDate(rs.getDate("date"));
-                booking.setStartTime(rs.getTime("start_time"));
-                booking.setEndTime(rs.getTime("end_time"));
-                booking.setPurpose(rs.getString("purpose"));
-                booking.setStatus(rs.getString("status"));
-                booking.setRoomName(rs.getString("room_name")); // Set the fetched room name
-                bookings.add(booking);
+                bookings.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Get bookings by user error: " + e.getMessage());
@@ -226,23 +508,14 @@ public class DatabaseManager {
     }
 
     public static ArrayList<Booking> getPendingBookings() {
-        Connection conn = getConnection();
+        Connection conn = getReadConnection("getPendingBookings");
         ArrayList<Booking> bookings = new ArrayList<>();
         if (conn == null) return bookings;
-        String sql = "SELECT * FROM Bookings WHERE status = 'pending' ORDER BY date ASC";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(PENDING_BOOKINGS_SQL)) {
             ResultSet rs = ps.executeQuery();
+            RowMapper<Booking> mapper = RowMappers.bookings(rs);
             while (rs.next()) {
-                Booking booking = new Booking();
-                booking.setId(rs.getInt("id"));
-                booking.setUserId(rs.getInt("user_id"));
-                booking.setRoomId(rs.getInt("room_id"));
-                booking.setDate(rs.getDate("date"));
-                booking.setStartTime(rs.getTime("start_time"));
-                booking.setEndTime(rs.getTime("end_time"));
-                booking.setPurpose(rs.getString("purpose"));
-                booking.setStatus(rs.getString("status"));
-                bookings.add(booking);
+                bookings.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Get pending bookings error: " + e.getMessage());
@@ -251,26 +524,27 @@ public class DatabaseManager {
     }
 
     /**
-     * Gets all bookings, used for admin reporting.
+     * Gets all live bookings, used for admin reporting.
      */
     public static ArrayList<Booking> getAllBookings() {
-        Connection conn = getConnection();
+        return getAllBookings(false);
+    }
+
+    /**
+     * Gets all bookings, with the archived ones too if {@code includeArchive} is set.
+     */
+    public static ArrayList<Booking> getAllBookings(boolean includeArchive) {
+        Connection conn = getReadConnection("getAllBookings");
         ArrayList<Booking> bookings = new ArrayList<>();
         if (conn == null) return bookings;
-        String sql = "SELECT * FROM Bookings ORDER BY date DESC";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        String columns = "SELECT id, user_id, room_id, date, start_time, end_time, purpose, status FROM ";
+        String sql = columns + "Bookings"
+                + (includeArchive ? " UNION ALL " + columns + "bookings_archive" : "") + " ORDER BY date DESC";
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ResultSet rs = ps.executeQuery();
+            RowMapper<Booking> mapper = RowMappers.bookings(rs);
             while (rs.next()) {
-                Booking booking = new Booking();
-                booking.setId(rs.getInt("id"));
-                booking.setUserId(rs.getInt("user_id"));
-                booking.setRoomId(rs.getInt("room_id"));
-                booking.setDate(rs.getDate("date"));
-                booking.setStartTime(rs.getTime("start_time"));
-                booking.setEndTime(rs.getTime("end_time"));
-                booking.setPurpose(rs.getString("purpose"));
-                booking.setStatus(rs.getString("status"));
-                bookings.add(booking);
+                bookings.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
             System.err.println("Get all bookings error: " + e.getMessage());
@@ -278,30 +552,279 @@ public class DatabaseManager {
         return bookings;
     }
 
+    /**
+     * Gets the full purpose text of one booking, for when a row is opened; archived bookings are
+     * looked up too. Returns null if the booking does not exist or the database could not be reached.
+     */
+    public static String getBookingPurpose(int bookingId) {
+        Connection conn = getReadConnection("getBookingPurpose");
+        if (conn == null) return null;
+        String sql = "SELECT purpose FROM Bookings WHERE id = ?";
+        String archiveSql = "SELECT purpose FROM bookings_archive WHERE id = ?";
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql); PreparedStatement archive = conn.prepareStatement(archiveSql)) {
+            ps.setInt(1, bookingId);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) return rs.getString(1);
+            archive.setInt(1, bookingId);
+            rs = archive.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+        } catch (SQLException e) {
+            System.err.println("Get booking purpose error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Gets one page of bookings ordered newest first, using keyset pagination on (date, id).
+     * Pass a null {@code afterDate} for the first page; for later pages pass the date and id
+     * of the last booking of the previous page. Archived bookings are left out unless
+     * {@code includeArchive} is set.
+     */
+    public static ArrayList<Booking> getBookingsPage(Date afterDate, int afterId, int limit, boolean includeArchive) {
+        Connection conn = getReadConnection("getBookingsPage");
+        ArrayList<Booking> bookings = new ArrayList<>();
+        if (conn == null) return bookings;
+        try (conn) {
+            readPage(conn, afterDate == null ? FIRST_BOOKINGS_PAGE_SQL : NEXT_BOOKINGS_PAGE_SQL, afterDate, afterId, limit, bookings);
+            if (includeArchive) {
+                // Each table's page comes off its own date index; the newest `limit` of both is the page.
+                readPage(conn, afterDate == null ? FIRST_ARCHIVE_PAGE_SQL : NEXT_ARCHIVE_PAGE_SQL, afterDate, afterId, limit, bookings);
+                bookings.sort(Comparator.comparing(Booking::getDate).thenComparingInt(Booking::getId).reversed());
+                if (bookings.size() > limit) bookings.subList(limit, bookings.size()).clear();
+            }
+        } catch (SQLException e) {
+            System.err.println("Get bookings page error: " + e.getMessage());
+        }
+        return bookings;
+    }
+
+    private static void readPage(Connection conn, String sql, Date afterDate, int afterId, int limit,
+                                 List<Booking> bookings) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (afterDate != null) {
+                ps.setDate(i++, afterDate);
+                ps.setDate(i++, afterDate);
+                ps.setInt(i++, afterId);
+            }
+            ps.setInt(i, limit);
+            ResultSet rs = ps.executeQuery();
+            RowMapper<Booking> mapper = RowMappers.bookings(rs);
+            while (rs.next()) {
+                bookings.add(mapper.mapRow(rs));
+            }
+        }
+    }
+
+    /**
+     * Gets bookings on or after the given date without their purpose text;
+     * used to build the in-memory AvailabilityIndex.
+     */
+    public static ArrayList<Booking> getUpcomingBookings(Date fromDate) {
+        Connection conn = getReadConnection("getUpcomingBookings");
+        if (conn == null) return null;
+        ArrayList<Booking> bookings = new ArrayList<>();
+        try (conn; PreparedStatement ps = conn.prepareStatement(UPCOMING_BOOKINGS_SQL)) {
+            ps.setDate(1, fromDate);
+            ResultSet rs = ps.executeQuery();
+            RowMapper<Booking> mapper = RowMappers.bookings(rs);
+            while (rs.next()) {
+                bookings.add(mapper.mapRow(rs));
+            }
+            return bookings;
+        } catch (SQLException e) {
+            System.err.println("Get upcoming bookings error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the latest version in the booking change log. Read this before loading a
+     * table, then poll getBookingChangesSince with it to keep the table up to date.
+     */
+    public static long getCurrentChangeVersion() {
+        Connection conn = getReadConnection("getCurrentChangeVersion");
+        if (conn == null) return 0;
+        String sql = "SELECT COALESCE(MAX(version), 0) FROM booking_changes";
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Get change version error: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the bookings inserted, updated or deleted after the given change-log version,
+     * with each changed booking's current row (and its user and room names) in a single query.
+     * If changes after {@code version} were already pruned (see ChangeLogPruner) this returns
+     * {@link BookingChanges#reloadRequired}. Returns null if the database could not be reached.
+     */
+    public static BookingChanges getBookingChangesSince(long version) {
+        Connection conn = getReadConnection("getBookingChangesSince");
+        if (conn == null) return null;
+        try (conn; PreparedStatement ps = conn.prepareStatement(BOOKING_CHANGES_SQL)) {
+            BookingChanges pruned = checkPruned(conn, version);
+            if (pruned != null) {
+                AvailabilityIndex.getInstance().invalidate();
+                return pruned;
+            }
+            ps.setLong(1, version);
+            ResultSet rs = ps.executeQuery();
+            long toVersion = version;
+            ArrayList<Booking> upserted = new ArrayList<>();
+            ArrayList<Integer> insertedIds = new ArrayList<>();
+            ArrayList<Integer> deletedIds = new ArrayList<>();
+            // The first three columns come from the change log; the rest are the booking row.
+            RowMapper<Booking> mapper = RowMappers.bookings(rs);
+            int bookingIdColumn = rs.findColumn("id");
+            while (rs.next()) {
+                int bookingId = rs.getInt(1);
+                toVersion = Math.max(toVersion, rs.getLong(2));
+                rs.getInt(bookingIdColumn);
+                if (rs.wasNull()) {
+                    // The row is gone, so its last change was a delete.
+                    deletedIds.add(bookingId);
+                    continue;
+                }
+                upserted.add(mapper.mapRow(rs));
+                if (rs.getBoolean(3)) insertedIds.add(bookingId);
+            }
+            BookingChanges changes = new BookingChanges(version, toVersion, upserted, insertedIds, deletedIds);
+            // Other clients' writes keep the local overlap index current as well.
+            AvailabilityIndex.getInstance().applyChanges(changes);
+            return changes;
+        } catch (SQLException e) {
+            System.err.println("Get booking changes error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // reloadRequired if the log no longer reaches back to version + 1, otherwise null.
+    private static BookingChanges checkPruned(Connection conn, long version) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(CHANGE_LOG_RANGE_SQL); ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) return null;
+            long oldest = rs.getLong(1);
+            if (rs.wasNull() || version >= oldest - 1) return null;
+            return BookingChanges.reloadRequired(version, rs.getLong(2));
+        }
+    }
+
     public static boolean updateBookingStatus(int bookingId, String status) {
-        Connection conn = getConnection();
+        Connection conn = getConnection("updateBookingStatus");
         if (conn == null) return false;
         String sql = "UPDATE Bookings SET status = ? WHERE id = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, status);
             ps.setInt(2, bookingId);
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) return false;
+            AvailabilityIndex.getInstance().onBookingStatusChanged(bookingId, status);
+            changed(ChangeEventBus.BOOKINGS);
+            return true;
         } catch (SQLException e) {
             System.err.println("Update booking status error: " + e.getMessage());
             return false;
         }
     }
     
+    /**
+     * Moves the given bookings from pending to {@code status} in a single transaction.
+     * Bookings that are no longer pending (e.g. decided by another admin meanwhile) are skipped.
+     * @return the number of bookings updated, or -1 on error (nothing is changed then)
+     */
+    public static int updateBookingStatuses(int[] bookingIds, String status) {
+        if (bookingIds.length == 0) return 0;
+        Connection conn = getConnection("updateBookingStatuses");
+        if (conn == null) return -1;
+        try (conn) {
+            conn.setAutoCommit(false);
+            List<Integer> pendingIds = new ArrayList<>();
+            for (int from = 0; from < bookingIds.length; from += BULK_CHUNK_SIZE) {
+                int to = Math.min(bookingIds.length, from + BULK_CHUNK_SIZE);
+                String sql = "SELECT id FROM Bookings WHERE status = 'pending' AND id IN (" + placeholders(to - from) + ") FOR UPDATE";
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = from; i < to; i++) {
+                        ps.setInt(i - from + 1, bookingIds[i]);
+                    }
+                    collectIds(ps, pendingIds);
+                }
+            }
+            return commitStatuses(conn, pendingIds, status);
+        } catch (SQLException e) {
+            // The pool rolls back the open transaction when the connection is returned.
+            System.err.println("Bulk update booking status error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Moves every pending booking for a room on a date to {@code status} in a single transaction,
+     * e.g. to reject all requests for a room that is closed that day.
+     * @return the number of bookings updated, or -1 on error (nothing is changed then)
+     */
+    public static int updatePendingBookingStatuses(int roomId, Date date, String status) {
+        Connection conn = getConnection("updatePendingBookingStatuses");
+        if (conn == null) return -1;
+        try (conn) {
+            conn.setAutoCommit(false);
+            List<Integer> pendingIds = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(PENDING_FOR_ROOM_DAY_SQL)) {
+                ps.setInt(1, roomId);
+                ps.setDate(2, date);
+                collectIds(ps, pendingIds);
+            }
+            return commitStatuses(conn, pendingIds, status);
+        } catch (SQLException e) {
+            System.err.println("Bulk update booking status error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // Updates the locked rows in IN (...) chunks, commits, then tells the overlap index.
+    private static int commitStatuses(Connection conn, List<Integer> bookingIds, String status) throws SQLException {
+        for (int from = 0; from < bookingIds.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = bookingIds.subList(from, Math.min(bookingIds.size(), from + BULK_CHUNK_SIZE));
+            String sql = "UPDATE Bookings SET status = ? WHERE id IN (" + placeholders(chunk.size()) + ")";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, status);
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setInt(i + 2, chunk.get(i));
+                }
+                ps.executeUpdate();
+            }
+        }
+        conn.commit();
+        AvailabilityIndex.getInstance().onBookingStatusesChanged(bookingIds, status);
+        if (!bookingIds.isEmpty()) changed(ChangeEventBus.BOOKINGS);
+        return bookingIds.size();
+    }
+
+    private static void collectIds(PreparedStatement ps, List<Integer> ids) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
     /**
      * Deletes a booking, used for the "Cancel Booking" feature.
      */
     public static boolean deleteBooking(int bookingId) {
-        Connection conn = getConnection();
+        Connection conn = getConnection("deleteBooking");
         if (conn == null) return false;
         String sql = "DELETE FROM Bookings WHERE id = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, bookingId);
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) return false;
+            AvailabilityIndex.getInstance().onBookingDeleted(bookingId);
+            changed(ChangeEventBus.BOOKINGS);
+            return true;
         } catch (SQLException e) {
             System.err.println("Delete booking error: " + e.getMessage());
             return false;
@@ -0,0 +1,21 @@
+// DiagnosticsMXBean.java
+// JMX interface for OperationMetrics; shows up in JConsole/VisualVM under
+// com.mycompany.hall.booking.system:type=Diagnostics.
+package com.mycompany.hall.booking.system;
+
+import java.util.List;
+
+public interface DiagnosticsMXBean {
+
+    List<OperationMetrics.Stats> getOperations();
+
+    List<QueryStatsInterceptor.Stats> getStatements();
+
+    String getPoolStats();
+
+    long getSlowThresholdMillis();
+
+    void setSlowThresholdMillis(long millis);
+
+    void reset();
+}
@@ -0,0 +1,182 @@
+// IntervalTree.java
+// A balanced (treap) interval tree of half-open [start, end) intervals, each tagged with a booking id.
+package com.mycompany.hall.booking.system;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class IntervalTree {
+
+    private static final class Node {
+        final int id;
+        final int start;
+        final int end;
+        final int priority;
+        int maxEnd;
+        Node left;
+        Node right;
+
+        Node(int id, int start, int end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds an interval. Intervals are ordered by (start, id), so the same id must not be added twice.
+     */
+    public void insert(int id, int start, int end) {
+        root = insert(root, new Node(id, start, end));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given id and start.
+     *
+     * @return true if it was present
+     */
+    public boolean remove(int id, int start) {
+        int before = size;
+        root = remove(root, id, start);
+        return size < before;
+    }
+
+    /**
+     * @return true if any stored interval overlaps [start, end)
+     */
+    public boolean overlaps(int start, int end) {
+        return findAny(root, start, end) != null;
+    }
+
+    /**
+     * @return the ids of all stored intervals overlapping [start, end), ordered by start
+     */
+    public List<Integer> findOverlapping(int start, int end) {
+        List<Integer> ids = new ArrayList<>();
+        collect(root, start, end, ids);
+        return ids;
+    }
+
+    /**
+     * @return all stored intervals as {id, start, end} triples, ordered by start
+     */
+    public List<int[]> toList() {
+        List<int[]> out = new ArrayList<>(size);
+        inOrder(root, out);
+        return out;
+    }
+
+    private static int compare(Node a, int id, int start) {
+        if (a.start != start) return Integer.compare(a.start, start);
+        return Integer.compare(a.id, id);
+    }
+
+    private static void update(Node n) {
+        int max = n.end;
+        if (n.left != null && n.left.maxEnd > max) max = n.left.maxEnd;
+        if (n.right != null && n.right.maxEnd > max) max = n.right.maxEnd;
+        n.maxEnd = max;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static Node insert(Node n, Node added) {
+        if (n == null) return added;
+        if (compare(n, added.id, added.start) > 0) {
+            n.left = insert(n.left, added);
+            if (n.left.priority > n.priority) n = rotateRight(n);
+        } else {
+            n.right = insert(n.right, added);
+            if (n.right.priority > n.priority) n = rotateLeft(n);
+        }
+        update(n);
+        return n;
+    }
+
+    private Node remove(Node n, int id, int start) {
+        if (n == null) return null;
+        int cmp = compare(n, id, start);
+        if (cmp > 0) {
+            n.left = remove(n.left, id, start);
+        } else if (cmp < 0) {
+            n.right = remove(n.right, id, start);
+        } else {
+            if (n.left == null || n.right == null) {
+                size--;
+                return n.left != null ? n.left : n.right;
+            }
+            // Rotate the node down until it has at most one child, then unlink it.
+            if (n.left.priority > n.right.priority) {
+                n = rotateRight(n);
+                n.right = remove(n.right, id, start);
+            } else {
+                n = rotateLeft(n);
+                n.left = remove(n.left, id, start);
+            }
+        }
+        update(n);
+        return n;
+    }
+
+    private static Node findAny(Node n, int start, int end) {
+        while (n != null) {
+            if (n.maxEnd <= start) return null;
+            if (n.start < end && n.end > start) return n;
+            // If the left subtree reaches past start, an overlap (if any) is there;
+            // otherwise only the right subtree can still contain one.
+            if (n.left != null && n.left.maxEnd > start) {
+                n = n.left;
+            } else if (n.start < end) {
+                n = n.right;
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static void collect(Node n, int start, int end, List<Integer> ids) {
+        if (n == null || n.maxEnd <= start) return;
+        collect(n.left, start, end, ids);
+        if (n.start < end && n.end > start) ids.add(n.id);
+        if (n.start < end) collect(n.right, start, end, ids);
+    }
+
+    private static void inOrder(Node n, List<int[]> out) {
+        if (n == null) return;
+        inOrder(n.left, out);
+        out.add(new int[] { n.id, n.start, n.end });
+        inOrder(n.right, out);
+    }
+}
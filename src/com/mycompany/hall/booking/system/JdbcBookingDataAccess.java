@@ -0,0 +1,171 @@
+// JdbcBookingDataAccess.java
+// BookingDataAccess backed directly by DatabaseManager (this process's own connection pool).
+package com.mycompany.hall.booking.system;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public class JdbcBookingDataAccess implements BookingDataAccess {
+
+    @Override
+    public boolean isReachable() {
+        return DatabaseManager.isReachable();
+    }
+
+    @Override
+    public User validateLogin(String email, String password) {
+        return DatabaseManager.validateLogin(email, password);
+    }
+
+    @Override
+    public boolean registerUser(User user) {
+        return DatabaseManager.registerUser(user);
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        return DatabaseManager.getUserByEmail(email);
+    }
+
+    @Override
+    public void logout() {
+        // No session: every call uses this process's own connection pool
+    }
+
+    @Override
+    public void setSessionExpiredHandler(Runnable handler) {
+        // Never called; there is no session to expire
+    }
+
+    @Override
+    public List<Room> getAvailableRooms() {
+        return DatabaseManager.getAvailableRooms();
+    }
+
+    @Override
+    public boolean addRoom(Room room) {
+        return DatabaseManager.addRoom(room);
+    }
+
+    @Override
+    public boolean updateRoom(int roomId, String name, int capacity) {
+        return DatabaseManager.updateRoom(roomId, name, capacity);
+    }
+
+    @Override
+    public boolean deleteRoom(int roomId) {
+        return DatabaseManager.deleteRoom(roomId);
+    }
+
+    @Override
+    public List<Room> findFreeRooms(int minCapacity, LocalDate fromDate, LocalDate toDate, LocalTime start, LocalTime end) {
+        return RoomSearchIndex.getInstance().findFreeRooms(minCapacity, fromDate, toDate, start, end);
+    }
+
+    @Override
+    public BookingResult createBooking(Booking booking) {
+        return DatabaseManager.createBooking(booking);
+    }
+
+    @Override
+    public List<Booking> getBookingsByUser(int userId) {
+        return DatabaseManager.getBookingsByUser(userId);
+    }
+
+    @Override
+    public List<Booking> getPendingBookings() {
+        return DatabaseManager.getPendingBookings();
+    }
+
+    @Override
+    public List<Booking> getBookingsPage(Date afterDate, int afterId, int limit, boolean includeArchive) {
+        return DatabaseManager.getBookingsPage(afterDate, afterId, limit, includeArchive);
+    }
+
+    @Override
+    public String getBookingPurpose(int bookingId) {
+        return DatabaseManager.getBookingPurpose(bookingId);
+    }
+
+    @Override
+    public long getCurrentChangeVersion() {
+        return DatabaseManager.getCurrentChangeVersion();
+    }
+
+    @Override
+    public BookingChanges getBookingChangesSince(long version) {
+        return DatabaseManager.getBookingChangesSince(version);
+    }
+
+    @Override
+    public int updateBookingStatuses(int[] bookingIds, String status) {
+        return DatabaseManager.updateBookingStatuses(bookingIds, status);
+    }
+
+    @Override
+    public int updatePendingBookingStatuses(int roomId, Date date, String status) {
+        return DatabaseManager.updatePendingBookingStatuses(roomId, date, status);
+    }
+
+    @Override
+    public boolean deleteBooking(int bookingId) {
+        return DatabaseManager.deleteBooking(bookingId);
+    }
+
+    @Override
+    public long exportBookings(Path target, BookingExporter.Format format, boolean gzip, BookingExporter.Listener listener)
+            throws IOException, SQLException {
+        return BookingExporter.export(target, format, gzip, listener);
+    }
+
+    @Override
+    public List<RoomUsage> getRoomUsage(Date from, Date to, RoomUsage.Period period) {
+        return RoomUsageRollup.getRoomUsage(from, to, period);
+    }
+
+    @Override
+    public int rebuildRoomUsage() {
+        return RoomUsageRollup.rebuild();
+    }
+
+    @Override
+    public List<OperationMetrics.Stats> getOperationStats() {
+        return OperationMetrics.snapshot();
+    }
+
+    @Override
+    public List<QueryStatsInterceptor.Stats> getStatementStats() {
+        return QueryStatsInterceptor.snapshot();
+    }
+
+    @Override
+    public String getPoolSummary() {
+        return DatabaseManager.getPoolStats().toString();
+    }
+
+    @Override
+    public void resetOperationStats() {
+        OperationMetrics.reset();
+        QueryStatsInterceptor.reset();
+    }
+
+    @Override
+    public void subscribeChanges(ChangeEventBus.Listener listener) {
+        ChangeEventBus.getInstance().subscribe(listener);
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return DatabaseManager.getCircuitBreaker();
+    }
+
+    @Override
+    public boolean isChangePushComplete() {
+        return false; // Other desktop clients write to MySQL directly without telling this JVM
+    }
+}
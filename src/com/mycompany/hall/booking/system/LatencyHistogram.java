@@ -0,0 +1,72 @@
+// LatencyHistogram.java
+// A fixed-size, lock-free latency histogram. Durations fall into log-linear buckets (four per
+// power of two of microseconds), so recording is one array increment and percentiles are
+// accurate to within about 20%, which is plenty to tell a 2 ms query from a 200 ms one.
+package com.mycompany.hall.booking.system;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(0, nanos) / 1000));
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the upper bound of the bucket holding that percentile, in milliseconds (0 if empty)
+     */
+    public double percentileMillis(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                // Never report more than the largest duration actually seen
+                return Math.min(upperBoundMicros(i) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        maxNanos.set(0);
+    }
+
+    // Values below 4 us get a bucket each; above that, each power of two is split in four.
+    private static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int power = 63 - Long.numberOfLeadingZeros(micros); // >= 2
+        int sub = (int) (micros >>> (power - 2)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, (power - 1) * SUB_BUCKETS + sub);
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket + 1;
+        int power = bucket / SUB_BUCKETS + 1;
+        int sub = bucket % SUB_BUCKETS;
+        return (1L << power) + ((long) (sub + 1) << (power - 2));
+    }
+}
@@ -0,0 +1,38 @@
+// NameDictionary.java
+// Shares one String instance per id for names read from joined queries, so thousands of cached
+// booking rows for the same user or room hold a single copy of its name instead of one each.
+package com.mycompany.hall.booking.system;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class NameDictionary {
+
+    public static final NameDictionary ROOM_NAMES = new NameDictionary();
+    public static final NameDictionary USER_NAMES = new NameDictionary();
+    public static final NameDictionary USER_EMAILS = new NameDictionary();
+
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    private NameDictionary() {
+    }
+
+    /**
+     * Returns the shared instance for this id's name. A changed name (e.g. a renamed room)
+     * replaces the old one.
+     */
+    public String intern(int id, String name) {
+        if (name == null) return null;
+        String known = names.get(id);
+        if (name.equals(known)) return known;
+        names.put(id, name);
+        return name;
+    }
+
+    /**
+     * @return the last name seen for this id, or null
+     */
+    public String get(int id) {
+        return names.get(id);
+    }
+}
@@ -0,0 +1,283 @@
+// OperationMetrics.java
+// Per-operation timings for DatabaseManager. Each operation borrows its connection through
+// DatabaseManager.getConnection(operation) / getReadConnection(operation); the connection is
+// wrapped here so that closing it records the call's latency, its pool wait, and whether any
+// statement failed. Calls slower than the threshold are logged with their SQL and the types of
+// their parameters; the values are left out, since some operations bind passwords.
+package com.mycompany.hall.booking.system;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+public final class OperationMetrics {
+
+    public static final String MBEAN_NAME = "com.mycompany.hall.booking.system:type=Diagnostics";
+
+    // Statements remembered per call for the slow-operation log; bulk updates can run many.
+    private static final int MAX_LOGGED_STATEMENTS = 10;
+
+    private static final Map<String, Operation> OPERATIONS = new ConcurrentHashMap<>();
+    private static volatile long slowThresholdMillis = Long.getLong("hallbooking.metrics.slowMs", 500);
+
+    static {
+        registerMBean();
+    }
+
+    private OperationMetrics() {
+    }
+
+    /**
+     * Running totals for one operation name.
+     */
+    private static final class Operation {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder poolWaitNanos = new LongAdder();
+    }
+
+    /**
+     * Point-in-time figures for one operation; also what the Diagnostics MBean returns.
+     */
+    public static final class Stats {
+        private final String operation;
+        private final long calls;
+        private final long errors;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+        private final double averagePoolWaitMillis;
+
+        public Stats(String operation, long calls, long errors, double p50Millis, double p99Millis,
+                     double maxMillis, double averagePoolWaitMillis) {
+            this.operation = operation;
+            this.calls = calls;
+            this.errors = errors;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.averagePoolWaitMillis = averagePoolWaitMillis;
+        }
+
+        public String getOperation() { return operation; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+        public double getAveragePoolWaitMillis() { return averagePoolWaitMillis; }
+    }
+
+    /**
+     * Wraps a freshly borrowed connection so that closing it records one call of {@code operation}.
+     *
+     * @param poolWaitNanos how long borrowing the connection took
+     */
+    static Connection track(String operation, Connection conn, long poolWaitNanos) {
+        Operation stats = OPERATIONS.computeIfAbsent(operation, name -> new Operation());
+        stats.poolWaitNanos.add(poolWaitNanos);
+        return (Connection) Proxy.newProxyInstance(OperationMetrics.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new Call(operation, stats, conn));
+    }
+
+    /**
+     * Counts a call that never got as far as a connection (e.g. the pool timed out).
+     */
+    static void recordFailedBorrow(String operation, long poolWaitNanos) {
+        Operation stats = OPERATIONS.computeIfAbsent(operation, name -> new Operation());
+        stats.poolWaitNanos.add(poolWaitNanos);
+        stats.calls.increment();
+        stats.errors.increment();
+        stats.latency.record(poolWaitNanos);
+    }
+
+    /**
+     * @return every operation seen so far, sorted by name
+     */
+    public static List<Stats> snapshot() {
+        List<Stats> result = new ArrayList<>();
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(OPERATIONS).entrySet()) {
+            Operation op = entry.getValue();
+            long calls = op.calls.sum();
+            result.add(new Stats(entry.getKey(), calls, op.errors.sum(),
+                    op.latency.percentileMillis(50), op.latency.percentileMillis(99), op.latency.getMaxMillis(),
+                    calls == 0 ? 0 : op.poolWaitNanos.sum() / 1_000_000.0 / calls));
+        }
+        return result;
+    }
+
+    public static void reset() {
+        OPERATIONS.clear();
+    }
+
+    public static long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public static void setSlowThresholdMillis(long millis) {
+        slowThresholdMillis = millis;
+    }
+
+    /**
+     * One borrowed connection: times the call from borrow to close and notes its statements.
+     */
+    private static final class Call implements InvocationHandler {
+        final String operation;
+        final Operation stats;
+        final Connection conn;
+        final long startNanos = System.nanoTime();
+        final List<Object[]> statements = new ArrayList<>(); // {sql, params}, for the slow log
+        volatile boolean failed;
+        boolean closed;
+
+        Call(String operation, Operation stats, Connection conn) {
+            this.operation = operation;
+            this.stats = stats;
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    finish();
+                    conn.close();
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = invokeOn(conn, method, args);
+            if (result instanceof PreparedStatement) {
+                return wrapStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+            } else if (result instanceof Statement) {
+                return wrapStatement((Statement) result, Statement.class, null);
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Statement statement, Class<?> type, String sql) {
+            Object[] params = new Object[0];
+            Object[] logged = { sql, params };
+            synchronized (statements) {
+                if (statements.size() < MAX_LOGGED_STATEMENTS) statements.add(logged);
+            }
+            return Proxy.newProxyInstance(OperationMetrics.class.getClassLoader(), new Class<?>[] { type },
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            int index = (Integer) args[0];
+                            Object[] current = (Object[]) logged[1];
+                            if (index > current.length) logged[1] = current = Arrays.copyOf(current, index);
+                            current[index - 1] = "setNull".equals(name) ? null : args[1];
+                        } else if (sql == null && name.startsWith("execute") && args != null && args[0] instanceof String) {
+                            logged[0] = args[0];
+                        }
+                        return invokeOn(statement, method, args);
+                    });
+        }
+
+        // Calls through to the real object, noting any SQL failure for this operation.
+        private Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException) failed = true;
+                throw e.getCause();
+            }
+        }
+
+        private synchronized void finish() {
+            if (closed) return;
+            closed = true;
+            long nanos = System.nanoTime() - startNanos;
+            stats.calls.increment();
+            if (failed) stats.errors.increment();
+            stats.latency.record(nanos);
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            if (millis >= slowThresholdMillis) {
+                StringBuilder message = new StringBuilder("Slow operation " + operation + ": " + millis + " ms");
+                synchronized (statements) {
+                    for (Object[] statement : statements) {
+                        message.append("\n    ").append(statement[0]).append(' ').append(parameterTypes((Object[]) statement[1]));
+                    }
+                }
+                System.err.println(message);
+            }
+        }
+
+        // "[String, Integer, null]": enough to tell the calls apart without logging any bound value
+        private static String parameterTypes(Object[] params) {
+            StringBuilder types = new StringBuilder("[");
+            for (int i = 0; i < params.length; i++) {
+                if (i > 0) types.append(", ");
+                types.append(params[i] == null ? "null" : params[i].getClass().getSimpleName());
+            }
+            return types.append(']').toString();
+        }
+    }
+
+    /**
+     * JMX view of the metrics, registered once under MBEAN_NAME.
+     */
+    private static final class Diagnostics implements DiagnosticsMXBean {
+        @Override
+        public List<Stats> getOperations() {
+            return snapshot();
+        }
+
+        @Override
+        public List<QueryStatsInterceptor.Stats> getStatements() {
+            return QueryStatsInterceptor.snapshot();
+        }
+
+        @Override
+        public String getPoolStats() {
+            return DatabaseManager.getPoolStats().toString();
+        }
+
+        @Override
+        public long getSlowThresholdMillis() {
+            return OperationMetrics.getSlowThresholdMillis();
+        }
+
+        @Override
+        public void setSlowThresholdMillis(long millis) {
+            OperationMetrics.setSlowThresholdMillis(millis);
+        }
+
+        @Override
+        public void reset() {
+            OperationMetrics.reset();
+            QueryStatsInterceptor.reset();
+        }
+    }
+
+    private static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Diagnostics(), new ObjectName(MBEAN_NAME));
+        } catch (Exception e) {
+            // Metrics still work without JMX, e.g. if a second class loader already registered it
+            System.err.println("Diagnostics MBean not registered: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+// QueryPlanCheck.java
+// Runs EXPLAIN on the hot DatabaseManager queries and fails if any of them would scan a whole
+// table, or would read a table through another index than the one it was written for.
+// Run with "ant check-query-plans" against a dev database.
+package com.mycompany.hall.booking.system;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class QueryPlanCheck {
+
+    // Stands for a full table scan in a Check's expected keys
+    private static final String FULL_SCAN = "ALL";
+
+    private static final class Check {
+        final String name;
+        final String sql;
+        // Table or alias, as EXPLAIN shows it (lower case) -> the keys the planner may pick for it
+        final Map<String, Set<String>> expectedKeys = new HashMap<>();
+        final Object[] params;
+
+        /**
+         * @param keys space-separated {@code table=key} entries; alternatives are separated by
+         *             {@code |}, and {@code ALL} explicitly allows a full scan of that table
+         */
+        Check(String name, String sql, String keys, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+            for (String entry : keys.split(" ")) {
+                String[] tableAndKeys = entry.split("=");
+                expectedKeys.put(tableAndKeys[0].toLowerCase(Locale.ROOT),
+                        new HashSet<>(Arrays.asList(tableAndKeys[1].split("\\|"))));
+            }
+        }
+    }
+
+    // Parameters are chosen to be selective, as in production: on a small dev table the planner
+    // may rightly prefer a scan for a range that covers every row, which would hide nothing.
+    private static final Check[] CHECKS = {
+        new Check("getBookingsByUser", DatabaseManager.BOOKINGS_BY_USER_SQL, "b=user_date r=PRIMARY", 1),
+        new Check("getPendingBookings", DatabaseManager.PENDING_BOOKINGS_SQL, "b=status_date u=PRIMARY r=PRIMARY"),
+        // No WHERE clause: reading the date index backwards is expected, but the planner may
+        // scan and sort instead while the table is small. The only full scan allowed on bookings.
+        new Check("getBookingsPage (first)", DatabaseManager.FIRST_BOOKINGS_PAGE_SQL, "b=date|ALL u=PRIMARY r=PRIMARY", 200),
+        new Check("getBookingsPage", DatabaseManager.NEXT_BOOKINGS_PAGE_SQL, "b=date u=PRIMARY r=PRIMARY",
+                Date.valueOf("2000-01-01"), Date.valueOf("2000-01-01"), 1, 200),
+        new Check("getUpcomingBookings", DatabaseManager.UPCOMING_BOOKINGS_SQL, "bookings=date", Date.valueOf("2100-01-01")),
+        new Check("getBookingChangesSince", DatabaseManager.BOOKING_CHANGES_SQL,
+                "booking_changes=PRIMARY b=PRIMARY u=PRIMARY r=PRIMARY", Long.MAX_VALUE - 1),
+        new Check("getBookingChangesSince (pruned)", DatabaseManager.CHANGE_LOG_RANGE_SQL, "booking_changes=PRIMARY"),
+        new Check("createBooking", DatabaseManager.OVERLAPPING_BOOKINGS_SQL, "bookings=room_date_start",
+                1, Date.valueOf("2025-01-01"), Time.valueOf("12:00:00"), Time.valueOf("10:00:00")),
+        new Check("updatePendingBookingStatuses", DatabaseManager.PENDING_FOR_ROOM_DAY_SQL.replace(" FOR UPDATE", ""),
+                "bookings=room_date_start|status_date", 1, Date.valueOf("2025-01-01")),
+        new Check("getBookingsPage (archive)", DatabaseManager.NEXT_ARCHIVE_PAGE_SQL, "b=date u=PRIMARY r=PRIMARY",
+                Date.valueOf("2000-01-01"), Date.valueOf("2000-01-01"), 1, 200),
+        new Check("archiveBookings", BookingArchiver.ARCHIVABLE_SQL.replace(" FOR UPDATE", ""), "bookings=status_date",
+                Date.valueOf("2000-01-01"), 500),
+        // The room list is a short catalog; the planner may read it first and look the days up by primary key.
+        new Check("getRoomUsage", String.format(RoomUsageRollup.USAGE_SQL, RoomUsageRollup.periodExpression(RoomUsage.Period.MONTH)),
+                "u=date|PRIMARY r=PRIMARY|ALL", Date.valueOf("2025-01-01"), Date.valueOf("2025-01-31")),
+    };
+
+    public static void main(String[] args) {
+        if (!SchemaMigrator.migrate()) {
+            System.err.println("Query plan check: could not bring the schema up to date");
+            System.exit(2);
+        }
+
+        List<String> failures = new ArrayList<>();
+        Connection conn = DatabaseManager.getConnection();
+        if (conn == null) {
+            System.err.println("Query plan check: database connection is not available");
+            System.exit(2);
+        }
+        try (conn) {
+            for (Check check : CHECKS) {
+                failures.addAll(explain(conn, check));
+            }
+        } catch (SQLException e) {
+            System.err.println("Query plan check error: " + e.getMessage());
+            System.exit(2);
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("Query plan check passed (" + CHECKS.length + " queries).");
+            System.exit(0);
+        }
+        for (String failure : failures) {
+            System.err.println(failure);
+        }
+        System.exit(1);
+    }
+
+    /**
+     * @return one message for each table the query would read in full, or through another
+     *         index than the one expected for it
+     */
+    private static List<String> explain(Connection conn, Check check) throws SQLException {
+        List<String> failures = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + check.sql)) {
+            for (int i = 0; i < check.params.length; i++) {
+                ps.setObject(i + 1, check.params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String table = rs.getString("table");
+                    // Derived tables (<derived2>) are temporary results, not stored tables.
+                    if (table == null || table.startsWith("<")) continue;
+                    Set<String> expected = check.expectedKeys.get(table.toLowerCase(Locale.ROOT));
+                    if (expected == null) {
+                        failures.add("UNCHECKED TABLE in " + check.name + ": no expected index listed for " + table
+                                + "\n    " + check.sql);
+                    } else if (FULL_SCAN.equals(rs.getString("type"))) {
+                        if (!expected.contains(FULL_SCAN)) {
+                            failures.add("FULL SCAN in " + check.name + ": table " + table + " (possible keys: "
+                                    + rs.getString("possible_keys") + ")\n    " + check.sql);
+                        }
+                    } else if (!expected.contains(rs.getString("key"))) {
+                        failures.add("WRONG INDEX in " + check.name + ": table " + table + " uses " + rs.getString("key")
+                                + ", expected " + String.join(" or ", expected) + "\n    " + check.sql);
+                    }
+                }
+            }
+        }
+        return failures;
+    }
+}
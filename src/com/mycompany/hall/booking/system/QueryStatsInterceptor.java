@@ -0,0 +1,244 @@
+// QueryStatsInterceptor.java
+// Connector/J query interceptor, registered by DatabaseManager through the "queryInterceptors"
+// connection property. It times every statement the driver sends, groups them by fingerprint
+// (the SQL with literals replaced by ?), and prints the fingerprints of statements over the threshold
+// together with their EXPLAIN plan, giving a client-side slow-query log without the server's slow log.
+// Only fingerprints are printed: the literal text can hold a password (see validateLogin).
+package com.mycompany.hall.booking.system;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+public class QueryStatsInterceptor implements QueryInterceptor {
+
+    private static final long SLOW_NANOS = Long.getLong("hallbooking.sql.slowMs", 200) * 1_000_000;
+    // A slow fingerprint is explained at most this often, so a burst of slow calls is one dump
+    private static final long EXPLAIN_INTERVAL_MS = 60000;
+    // Distinct fingerprints kept; anything beyond (e.g. ad-hoc SQL) is counted under OTHER
+    private static final int MAX_FINGERPRINTS = 1000;
+    private static final String OTHER = "<other>";
+
+    private static final Pattern VALUE_LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+
+    private static final Map<String, Fingerprint> FINGERPRINTS = new ConcurrentHashMap<>();
+    private static final ExecutorService EXPLAINER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "slow-sql-explain");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // One interceptor per physical connection, and a connection runs one statement at a time.
+    private long startNanos;
+
+    /**
+     * Running totals for one fingerprint.
+     */
+    private static final class Fingerprint {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder calls = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong lastExplainMillis = new AtomicLong();
+    }
+
+    /**
+     * Point-in-time figures for one fingerprint.
+     */
+    public static final class Stats {
+        private final String fingerprint;
+        private final long calls;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+        private final double totalMillis;
+
+        public Stats(String fingerprint, long calls, double p50Millis, double p99Millis, double maxMillis, double totalMillis) {
+            this.fingerprint = fingerprint;
+            this.calls = calls;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.totalMillis = totalMillis;
+        }
+
+        public String getFingerprint() { return fingerprint; }
+        public long getCalls() { return calls; }
+        public double getP50Millis() { return p50Millis; }
+        public double getP99Millis() { return p99Millis; }
+        public double getMaxMillis() { return maxMillis; }
+        public double getTotalMillis() { return totalMillis; }
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        startNanos = System.nanoTime();
+        return null; // Let the driver run the statement
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                               ServerSession serverSession) {
+        long nanos = System.nanoTime() - startNanos;
+        String text = sql.get();
+        if (text == null || text.regionMatches(true, 0, "EXPLAIN ", 0, 8)) return null; // Our own EXPLAINs
+        String fingerprint = fingerprint(text);
+        Fingerprint stats = statsFor(fingerprint);
+        stats.calls.increment();
+        stats.totalNanos.add(nanos);
+        stats.latency.record(nanos);
+        if (nanos >= SLOW_NANOS) reportSlow(text, fingerprint, nanos, stats);
+        return null; // Keep the driver's result
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true; // The driver's own internal queries are not the app's
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * @return every fingerprint seen so far, the most total time first
+     */
+    public static List<Stats> snapshot() {
+        List<Stats> result = new ArrayList<>();
+        for (Map.Entry<String, Fingerprint> entry : FINGERPRINTS.entrySet()) {
+            Fingerprint fp = entry.getValue();
+            result.add(new Stats(entry.getKey(), fp.calls.sum(), fp.latency.percentileMillis(50),
+                    fp.latency.percentileMillis(99), fp.latency.getMaxMillis(), fp.totalNanos.sum() / 1_000_000.0));
+        }
+        result.sort(Comparator.comparingDouble(Stats::getTotalMillis).reversed());
+        return result;
+    }
+
+    public static void reset() {
+        FINGERPRINTS.clear();
+    }
+
+    private static Fingerprint statsFor(String fingerprint) {
+        Fingerprint stats = FINGERPRINTS.get(fingerprint);
+        if (stats != null) return stats;
+        if (FINGERPRINTS.size() >= MAX_FINGERPRINTS) fingerprint = OTHER;
+        return FINGERPRINTS.computeIfAbsent(fingerprint, key -> new Fingerprint());
+    }
+
+    /**
+     * Normalizes SQL so calls that differ only in their values share one entry: string and number
+     * literals become ?, whitespace runs become one space, and lists of values such as
+     * IN (?, ?, ?) collapse to (?+).
+     */
+    static String fingerprint(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int i = 0;
+        int n = sql.length();
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"') {
+                i = skipQuoted(sql, i, c);
+                out.append('?');
+            } else if (Character.isDigit(c) && !partOfIdentifier(out)) {
+                while (i < n && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) i++;
+                if (out.length() > 0) out.append(' ');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        String result = out.toString().trim();
+        return result.indexOf(", ?") >= 0 || result.indexOf(",?") >= 0 ? VALUE_LIST.matcher(result).replaceAll("(?+)") : result;
+    }
+
+    private static boolean partOfIdentifier(StringBuilder out) {
+        if (out.length() == 0) return false;
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '`';
+    }
+
+    // Returns the index just past the closing quote, honouring backslash and doubled-quote escapes.
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    // Explains the literal statement (the plan depends on the values) but prints only its fingerprint.
+    private static void reportSlow(String sql, String fingerprint, long nanos, Fingerprint stats) {
+        long now = System.currentTimeMillis();
+        long last = stats.lastExplainMillis.get();
+        if (now - last < EXPLAIN_INTERVAL_MS || !stats.lastExplainMillis.compareAndSet(last, now)) {
+            System.err.printf("Slow SQL (%.3f ms): %s%n", nanos / 1_000_000.0, fingerprint);
+            return;
+        }
+        // EXPLAIN needs its own connection; this one is still in the middle of the caller's work.
+        EXPLAINER.execute(() -> System.err.printf("Slow SQL (%.3f ms): %s%n%s", nanos / 1_000_000.0, fingerprint, explain(sql)));
+    }
+
+    private static String explain(String sql) {
+        String verb = sql.trim().split("\\s+", 2)[0].toUpperCase();
+        if (!verb.equals("SELECT") && !verb.equals("UPDATE") && !verb.equals("DELETE")
+                && !verb.equals("INSERT") && !verb.equals("REPLACE")) {
+            return ""; // Nothing to explain (SET, COMMIT, DDL, ...)
+        }
+        Connection conn = DatabaseManager.getConnection();
+        if (conn == null) return "    EXPLAIN unavailable: no connection\n";
+        StringBuilder out = new StringBuilder();
+        try (conn; Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            ResultSetMetaData meta = rs.getMetaData();
+            while (rs.next()) {
+                out.append("    EXPLAIN");
+                for (int col = 1; col <= meta.getColumnCount(); col++) {
+                    out.append(' ').append(meta.getColumnLabel(col)).append('=').append(rs.getString(col));
+                }
+                out.append('\n');
+            }
+        } catch (SQLException e) {
+            // Not the message: a syntax error quotes the statement's text back
+            out.append("    EXPLAIN failed: SQLState ").append(e.getSQLState()).append(", error ").append(e.getErrorCode()).append('\n');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,157 @@
+// RoomCache.java
+// Read-through cache of the Rooms table. Rooms only change through DatabaseManager.addRoom,
+// updateRoom and deleteRoom, which invalidate it; a TTL picks up edits made by other clients.
+package com.mycompany.hall.booking.system;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class RoomCache {
+
+    private static final RoomCache INSTANCE = new RoomCache(Long.getLong("hallbooking.roomCache.ttlMs", 5 * 60 * 1000));
+
+    /**
+     * Immutable view of the rooms at one point in time, with its lookup maps built once;
+     * replaced as a whole on reload.
+     */
+    private static final class Snapshot {
+        final List<Room> rooms;
+        final Map<Integer, Room> byId;
+        final Map<String, Room> byName;
+        final long loadedAt;
+
+        Snapshot(List<Room> rooms, long loadedAt) {
+            this.rooms = Collections.unmodifiableList(rooms);
+            Map<Integer, Room> ids = new HashMap<>();
+            Map<String, Room> names = new HashMap<>();
+            for (Room room : rooms) {
+                ids.put(room.getId(), room);
+                names.put(room.getName(), room);
+            }
+            this.byId = ids;
+            this.byName = names;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // The last rooms read; kept after invalidation so a failed reload can still serve them.
+    private volatile Snapshot snapshot;
+    // Set by invalidate: the snapshot must be reloaded before it is served as current again.
+    private volatile boolean stale;
+    private volatile long ttlMillis;
+    // Bumped on every invalidation, so a load that started before a write is not cached.
+    private long generation;
+    // The reload in progress, shared by every caller that needs one meanwhile.
+    private CompletableFuture<Snapshot> reload;
+
+    public RoomCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    public static RoomCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * All rooms ordered by name. The list is read-only and shared; don't modify the rooms in it.
+     */
+    public List<Room> getRooms() {
+        return current().rooms;
+    }
+
+    /**
+     * @return the room with this id, or null
+     */
+    public Room getById(int roomId) {
+        return current().byId.get(roomId);
+    }
+
+    /**
+     * @return the room with this exact name, or null
+     */
+    public Room getByName(String name) {
+        return current().byName.get(name);
+    }
+
+    /**
+     * @return the room's name, or null if there is no such room
+     */
+    public String getRoomName(int roomId) {
+        Room room = getById(roomId);
+        return room == null ? null : room.getName();
+    }
+
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Forces the next read to go to the database. The rooms already read are kept, and
+     * served if that read fails.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        stale = true;
+        reload = null; // A reload already running may predate the write; the next caller starts another
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (isFresh(s)) return s;
+
+        CompletableFuture<Snapshot> pending;
+        boolean leader = false;
+        long startedGeneration;
+        synchronized (this) {
+            s = snapshot;
+            if (isFresh(s)) return s; // Reloaded while we waited for the lock
+            if (reload == null) {
+                reload = new CompletableFuture<>();
+                leader = true;
+            }
+            pending = reload;
+            startedGeneration = generation;
+        }
+        if (!leader) {
+            return pending.join(); // Someone else is reading the rooms; use theirs
+        }
+
+        try {
+            Snapshot loaded = load(startedGeneration);
+            pending.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (this) {
+                if (reload == pending) reload = null;
+            }
+        }
+    }
+
+    private boolean isFresh(Snapshot s) {
+        return s != null && !stale && System.currentTimeMillis() - s.loadedAt < ttlMillis;
+    }
+
+    private Snapshot load(long startedGeneration) {
+        ArrayList<Room> rooms = DatabaseManager.queryRooms();
+        synchronized (this) {
+            Snapshot last = snapshot;
+            if (rooms == null) {
+                // Database unreachable: keep serving the last known rooms rather than an empty list.
+                return last != null ? last : new Snapshot(new ArrayList<>(), 0);
+            }
+            Snapshot loaded = new Snapshot(rooms, System.currentTimeMillis());
+            if (generation == startedGeneration) {
+                snapshot = loaded;
+                stale = false;
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+// RoomSearchIndex.java
+// Answers "which rooms with capacity >= N are free between t1 and t2 on these dates?"
+// using a capacity-sorted room list and a quarter-hour occupancy bitmap per room per day.
+package com.mycompany.hall.booking.system;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RoomSearchIndex {
+
+    private static final RoomSearchIndex INSTANCE = new RoomSearchIndex();
+
+    // 96 quarter-hour slots per day: slots 0-63 live in the first long, 64-95 in the second.
+    public static final int SLOT_SECONDS = 15 * 60;
+    public static final int SLOTS_PER_DAY = 96;
+
+    // Rooms ordered by capacity, with their capacities in a parallel array for binary search.
+    private Room[] roomsByCapacity;
+    private int[] capacities;
+    private Map<Integer, Integer> positionByRoomId;
+
+    // epochDay -> {lo, hi} pairs indexed by room position; days without bookings are absent.
+    private final Map<Long, long[]> occupancy = new HashMap<>();
+    private boolean built;
+
+    // Room-days changed in the AvailabilityIndex since the last query.
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean fullRebuildNeeded = true;
+
+    private RoomSearchIndex() {
+        AvailabilityIndex.getInstance().addListener((roomId, epochDay) -> {
+            if (roomId < 0) {
+                fullRebuildNeeded = true;
+            } else {
+                dirty.add(((long) roomId << 32) | (epochDay & 0xffffffffL));
+            }
+        });
+    }
+
+    public static RoomSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Drops the room list so it is reloaded on the next search; called when rooms are added,
+     * edited or deleted.
+     */
+    public void invalidateRooms() {
+        fullRebuildNeeded = true;
+    }
+
+    /**
+     * Finds rooms with at least {@code minCapacity} seats that are free from {@code start} to
+     * {@code end} on every day from {@code fromDate} to {@code toDate} inclusive.
+     * Results are ordered by capacity, smallest first.
+     */
+    public List<Room> findFreeRooms(int minCapacity, LocalDate fromDate, LocalDate toDate,
+                                    LocalTime start, LocalTime end) {
+        List<Room> result = new ArrayList<>();
+        if (end.compareTo(start) <= 0 || toDate.isBefore(fromDate)) return result;
+
+        AvailabilityIndex availability = AvailabilityIndex.getInstance();
+        if (!availability.ensureLoaded()) {
+            // Without the bookings every room would look free
+            System.err.println("Find free rooms error: availability index could not be loaded");
+            return result;
+        }
+
+        int startSecond = start.toSecondOfDay();
+        int endSecond = end.toSecondOfDay();
+        long[] mask = slotMask(startSecond, endSecond);
+        long firstDay = fromDate.toEpochDay();
+        long lastDay = toDate.toEpochDay();
+
+        synchronized (this) {
+            refresh(availability);
+
+            int from = firstAtLeast(minCapacity);
+            int dayCount = (int) (lastDay - firstDay + 1);
+            long[][] days = new long[dayCount][];
+            for (int d = 0; d < dayCount; d++) {
+                days[d] = occupancy.get(firstDay + d);
+            }
+
+            for (int pos = from; pos < roomsByCapacity.length; pos++) {
+                Room room = roomsByCapacity[pos];
+                boolean free = true;
+                for (int d = 0; d < dayCount && free; d++) {
+                    long[] day = days[d];
+                    if (day == null) continue;
+                    if ((day[2 * pos] & mask[0]) != 0 || (day[2 * pos + 1] & mask[1]) != 0) {
+                        // The bitmap rounds to quarter hours, so confirm a hit against the exact intervals.
+                        free = availability.isFree(room.getId(), Date.valueOf(LocalDate.ofEpochDay(firstDay + d)),
+                                Time.valueOf(start), Time.valueOf(end));
+                    }
+                }
+                if (free) result.add(room);
+            }
+        }
+        return result;
+    }
+
+    private void refresh(AvailabilityIndex availability) {
+        if (!built || fullRebuildNeeded) {
+            fullRebuildNeeded = false;
+            dirty.clear();
+            rebuild(availability);
+            return;
+        }
+        for (Long key : dirty) {
+            dirty.remove(key);
+            int roomId = (int) (key >>> 32);
+            long epochDay = key & 0xffffffffL;
+            Integer pos = positionByRoomId.get(roomId);
+            if (pos == null) continue;
+
+            long[] day = occupancy.computeIfAbsent(epochDay, k -> new long[2 * roomsByCapacity.length]);
+            day[2 * pos] = 0;
+            day[2 * pos + 1] = 0;
+            for (int[] interval : availability.getBookedIntervals(roomId, LocalDate.ofEpochDay(epochDay))) {
+                mark(day, pos, interval[1], interval[2]);
+            }
+        }
+    }
+
+    private void rebuild(AvailabilityIndex availability) {
+        ArrayList<Room> rooms = DatabaseManager.getAvailableRooms();
+        rooms.sort(Comparator.comparingInt(Room::getCapacity));
+        roomsByCapacity = rooms.toArray(new Room[0]);
+        capacities = new int[roomsByCapacity.length];
+        positionByRoomId = new HashMap<>();
+        for (int i = 0; i < roomsByCapacity.length; i++) {
+            capacities[i] = roomsByCapacity[i].getCapacity();
+            positionByRoomId.put(roomsByCapacity[i].getId(), i);
+        }
+
+        occupancy.clear();
+        int roomCount = roomsByCapacity.length;
+        availability.forEachBlocking((roomId, epochDay, startSecond, endSecond) -> {
+            Integer pos = positionByRoomId.get(roomId);
+            if (pos == null) return;
+            long[] day = occupancy.computeIfAbsent(epochDay, k -> new long[2 * roomCount]);
+            mark(day, pos, startSecond, endSecond);
+        });
+        built = true;
+    }
+
+    // Index of the first room whose capacity is >= minCapacity.
+    private int firstAtLeast(int minCapacity) {
+        int lo = 0;
+        int hi = capacities.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (capacities[mid] < minCapacity) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void mark(long[] day, int pos, int startSecond, int endSecond) {
+        long[] bits = slotMask(startSecond, endSecond);
+        day[2 * pos] |= bits[0];
+        day[2 * pos + 1] |= bits[1];
+    }
+
+    /**
+     * Sets every quarter-hour slot that [startSecond, endSecond) touches.
+     */
+    static long[] slotMask(int startSecond, int endSecond) {
+        long[] mask = new long[2];
+        if (endSecond <= startSecond) return mask;
+        int first = startSecond / SLOT_SECONDS;
+        int last = Math.min(SLOTS_PER_DAY - 1, (endSecond - 1) / SLOT_SECONDS);
+        for (int slot = first; slot <= last; slot++) {
+            mask[slot >>> 6] |= 1L << (slot & 63);
+        }
+        return mask;
+    }
+}
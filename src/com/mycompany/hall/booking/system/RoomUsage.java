@@ -0,0 +1,60 @@
+// RoomUsage.java
+// One row of a usage report: a room's booking totals over a period, read from the
+// room_usage_daily rollup by RoomUsageRollup.
+package com.mycompany.hall.booking.system;
+
+public class RoomUsage {
+
+    /**
+     * How report rows are grouped in time.
+     */
+    public enum Period {
+        TOTAL, MONTH, WEEK
+    }
+
+    private int roomId;
+    private String roomName;
+    private String period; // e.g. "2025-03" or "2025-W11"; null for the whole range
+    private int pendingCount;
+    private int approvedCount;
+    private int rejectedCount;
+    private long requestedMinutes;
+    private long approvedMinutes;
+
+    public RoomUsage() {
+    }
+
+    public int getRoomId() { return roomId; }
+    public String getRoomName() { return roomName; }
+    public String getPeriod() { return period; }
+    public int getPendingCount() { return pendingCount; }
+    public int getApprovedCount() { return approvedCount; }
+    public int getRejectedCount() { return rejectedCount; }
+    public long getRequestedMinutes() { return requestedMinutes; }
+    public long getApprovedMinutes() { return approvedMinutes; }
+
+    public void setRoomId(int roomId) { this.roomId = roomId; }
+    public void setRoomName(String roomName) { this.roomName = roomName; }
+    public void setPeriod(String period) { this.period = period; }
+    public void setPendingCount(int pendingCount) { this.pendingCount = pendingCount; }
+    public void setApprovedCount(int approvedCount) { this.approvedCount = approvedCount; }
+    public void setRejectedCount(int rejectedCount) { this.rejectedCount = rejectedCount; }
+    public void setRequestedMinutes(long requestedMinutes) { this.requestedMinutes = requestedMinutes; }
+    public void setApprovedMinutes(long approvedMinutes) { this.approvedMinutes = approvedMinutes; }
+
+    public int getRequestCount() {
+        return pendingCount + approvedCount + rejectedCount;
+    }
+
+    public double getApprovedHours() {
+        return approvedMinutes / 60.0;
+    }
+
+    /**
+     * Share of decided requests that were approved, between 0 and 1 (0 if none were decided yet).
+     */
+    public double getApprovalRate() {
+        int decided = approvedCount + rejectedCount;
+        return decided == 0 ? 0 : (double) approvedCount / decided;
+    }
+}
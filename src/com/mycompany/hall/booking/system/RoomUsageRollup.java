@@ -0,0 +1,157 @@
+// RoomUsageRollup.java
+// Usage reports read from room_usage_daily, which triggers on `bookings` keep current (see
+// migrations/004_room_usage_daily.sql). A report touches one row per room and day in range,
+// however many bookings there are; rebuild() recomputes the table for backfills.
+package com.mycompany.hall.booking.system;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public final class RoomUsageRollup {
+
+    // Rooms rebuilt at once; each takes a pooled connection, so leave some for the app
+    private static final int REBUILD_THREADS = Integer.getInteger("hallbooking.rollup.rebuildThreads", 4);
+
+    static final String USAGE_SQL = "SELECT u.room_id, r.name AS room_name, %s AS period, "
+            + "SUM(u.pending_count) AS pending_count, SUM(u.approved_count) AS approved_count, "
+            + "SUM(u.rejected_count) AS rejected_count, SUM(u.requested_minutes) AS requested_minutes, "
+            + "SUM(u.approved_minutes) AS approved_minutes "
+            + "FROM room_usage_daily u JOIN Rooms r ON r.id = u.room_id "
+            + "WHERE u.date BETWEEN ? AND ? "
+            + "GROUP BY u.room_id, r.name, period "
+            + "HAVING SUM(u.pending_count + u.approved_count + u.rejected_count) > 0 "
+            + "ORDER BY r.name, period";
+
+    private static final String DELETE_ROOM_SQL = "DELETE FROM room_usage_daily WHERE room_id = ?";
+    private static final String REBUILD_ROOM_SQL = "INSERT INTO room_usage_daily "
+            + "(room_id, date, pending_count, approved_count, rejected_count, requested_minutes, approved_minutes) "
+            + "SELECT room_id, date, SUM(status = 'pending'), SUM(status = 'approved'), SUM(status = 'rejected'), "
+            + "SUM((TIME_TO_SEC(end_time) - TIME_TO_SEC(start_time)) DIV 60), "
+            + "SUM(IF(status = 'approved', (TIME_TO_SEC(end_time) - TIME_TO_SEC(start_time)) DIV 60, 0)) "
+            + "FROM (SELECT room_id, date, status, start_time, end_time FROM Bookings WHERE room_id = ? "
+            + "      UNION ALL SELECT room_id, date, status, start_time, end_time FROM bookings_archive WHERE room_id = ?) b "
+            + "GROUP BY room_id, date";
+
+    private RoomUsageRollup() {
+    }
+
+    /**
+     * Totals per room between {@code from} and {@code to} (inclusive), one row per room and period.
+     */
+    public static ArrayList<RoomUsage> getRoomUsage(Date from, Date to, RoomUsage.Period period) {
+        Connection conn = DatabaseManager.getReadConnection("getRoomUsage");
+        if (conn == null) return new ArrayList<>();
+        try (conn; PreparedStatement ps = conn.prepareStatement(String.format(USAGE_SQL, periodExpression(period)))) {
+            ps.setDate(1, from);
+            ps.setDate(2, to);
+            try (ResultSet rs = ps.executeQuery()) {
+                ArrayList<RoomUsage> rows = new ArrayList<>();
+                while (rs.next()) {
+                    RoomUsage usage = new RoomUsage();
+                    usage.setRoomId(rs.getInt("room_id"));
+                    usage.setRoomName(NameDictionary.ROOM_NAMES.intern(usage.getRoomId(), rs.getString("room_name")));
+                    usage.setPeriod(rs.getString("period"));
+                    usage.setPendingCount(rs.getInt("pending_count"));
+                    usage.setApprovedCount(rs.getInt("approved_count"));
+                    usage.setRejectedCount(rs.getInt("rejected_count"));
+                    usage.setRequestedMinutes(rs.getLong("requested_minutes"));
+                    usage.setApprovedMinutes(rs.getLong("approved_minutes"));
+                    rows.add(usage);
+                }
+                return rows;
+            }
+        } catch (SQLException e) {
+            System.err.println("Get room usage error: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    static String periodExpression(RoomUsage.Period period) {
+        switch (period) {
+            case WEEK: return "DATE_FORMAT(u.date, '%x-W%v')"; // ISO week, e.g. 2025-W03
+            case MONTH: return "DATE_FORMAT(u.date, '%Y-%m')";
+            default: return "NULL";
+        }
+    }
+
+    /**
+     * Recomputes room_usage_daily from the bookings, several rooms in parallel, each room in its
+     * own transaction. Meant for backfills; the triggers keep the table current otherwise.
+     *
+     * @return the number of rooms rebuilt, or -1 if any room failed
+     */
+    public static int rebuild() {
+        List<Integer> roomIds = roomsToRebuild();
+        if (roomIds == null) return -1;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, REBUILD_THREADS), r -> {
+            Thread t = new Thread(r, "room-usage-rebuild");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int roomId : roomIds) {
+                results.add(executor.submit(() -> rebuildRoom(roomId)));
+            }
+            boolean ok = true;
+            for (Future<Boolean> result : results) {
+                ok &= result.get();
+            }
+            return ok ? roomIds.size() : -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (ExecutionException e) {
+            System.err.println("Room usage rebuild error: " + e.getCause());
+            return -1;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Every room with live or archived bookings, plus rooms whose rollup rows may be stale
+    private static List<Integer> roomsToRebuild() {
+        Connection conn = DatabaseManager.getConnection("rebuildRoomUsage");
+        if (conn == null) return null;
+        String sql = "SELECT room_id FROM Bookings UNION SELECT room_id FROM bookings_archive UNION SELECT room_id FROM room_usage_daily";
+        try (conn; PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            List<Integer> ids = new ArrayList<>();
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+            return ids;
+        } catch (SQLException e) {
+            System.err.println("Room usage rebuild error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean rebuildRoom(int roomId) {
+        Connection conn = DatabaseManager.getConnection("rebuildRoomUsage");
+        if (conn == null) return false;
+        try (conn; PreparedStatement delete = conn.prepareStatement(DELETE_ROOM_SQL);
+             PreparedStatement insert = conn.prepareStatement(REBUILD_ROOM_SQL)) {
+            conn.setAutoCommit(false);
+            delete.setInt(1, roomId);
+            delete.executeUpdate();
+            insert.setInt(1, roomId);
+            insert.setInt(2, roomId); // Archived bookings still count; see BookingArchiver
+            insert.executeUpdate();
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            // The pool rolls back the open transaction when the connection is returned.
+            System.err.println("Room usage rebuild error for room " + roomId + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
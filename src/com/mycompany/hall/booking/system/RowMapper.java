@@ -0,0 +1,25 @@
+// RowMapper.java
+// Turns the current row of a ResultSet into an object. Mappers from RowMappers look up their
+// column indexes once when created, so reading each row is plain index access.
+package com.mycompany.hall.booking.system;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet rs) throws SQLException;
+
+    /**
+     * Maps every remaining row of the result set.
+     */
+    static <T> ArrayList<T> mapAll(ResultSet rs, RowMapper<T> mapper) throws SQLException {
+        ArrayList<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(mapper.mapRow(rs));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,163 @@
+// RowMapperBenchmark.java
+// Measures mapping 100k booking rows with RowMappers (column indexes resolved once) against reading
+// every column by label on every row, as the queries did before. Runs against an in-memory stub
+// ResultSet, so no database is needed and the driver's network and parsing costs are left out.
+// Run with "ant benchmark-row-mappers".
+package com.mycompany.hall.booking.system;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class RowMapperBenchmark {
+
+    // Each can be overridden with -Dhallbooking.benchmark.<name>=<value>
+    private static final int ROWS = Integer.getInteger("hallbooking.benchmark.rows", 100_000);
+    private static final int WARMUP_RUNS = Integer.getInteger("hallbooking.benchmark.warmupRuns", 20);
+    private static final int MEASURED_RUNS = Integer.getInteger("hallbooking.benchmark.runs", 20);
+
+    // The columns of the admin booking pages (see DatabaseManager.adminBookingList)
+    private static final String[] COLUMNS = {"id", "user_id", "room_id", "date", "start_time", "end_time", "status",
+            "purpose_preview", "purpose_truncated", "user_name", "user_email", "room_name"};
+
+    private RowMapperBenchmark() {
+    }
+
+    private interface Mapping {
+        Booking[] mapAll(ResultSet rs) throws SQLException;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Object[][] rows = generateRows(ROWS);
+        Mapping byLabel = RowMapperBenchmark::mapByLabel;
+        Mapping rowMapper = rs -> {
+            RowMapper<Booking> mapper = RowMappers.bookings(rs);
+            Booking[] bookings = new Booking[ROWS];
+            for (int i = 0; rs.next(); i++) {
+                bookings[i] = mapper.mapRow(rs);
+            }
+            return bookings;
+        };
+
+        // Alternate the two so neither gets a warmer JIT or heap to itself
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run(byLabel, rows);
+            run(rowMapper, rows);
+        }
+        long byLabelNanos = 0;
+        long rowMapperNanos = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            byLabelNanos += run(byLabel, rows);
+            rowMapperNanos += run(rowMapper, rows);
+        }
+
+        double byLabelMs = byLabelNanos / 1e6 / MEASURED_RUNS;
+        double rowMapperMs = rowMapperNanos / 1e6 / MEASURED_RUNS;
+        System.out.printf("Mapping %,d booking rows, mean of %d runs after %d warm-up runs:%n", ROWS, MEASURED_RUNS, WARMUP_RUNS);
+        System.out.printf("  by column label on every row:       %8.2f ms%n", byLabelMs);
+        System.out.printf("  RowMappers (indexes resolved once): %8.2f ms  (%.2fx)%n", rowMapperMs, byLabelMs / rowMapperMs);
+    }
+
+    private static long run(Mapping mapping, Object[][] rows) throws SQLException {
+        ResultSet rs = stubResultSet(rows);
+        long start = System.nanoTime();
+        Booking[] bookings = mapping.mapAll(rs);
+        long elapsed = System.nanoTime() - start;
+        if (bookings[bookings.length - 1] == null) throw new IllegalStateException("Not every row was mapped");
+        return elapsed;
+    }
+
+    // The mapping as written before RowMappers: every getter looks its column up by label.
+    private static Booking[] mapByLabel(ResultSet rs) throws SQLException {
+        Booking[] bookings = new Booking[ROWS];
+        for (int i = 0; rs.next(); i++) {
+            Booking booking = new Booking();
+            booking.setId(rs.getInt("id"));
+            booking.setUserId(rs.getInt("user_id"));
+            booking.setRoomId(rs.getInt("room_id"));
+            booking.setDate(rs.getDate("date"));
+            booking.setStartTime(rs.getTime("start_time"));
+            booking.setEndTime(rs.getTime("end_time"));
+            booking.setStatus(rs.getString("status"));
+            booking.setPurposePreview(rs.getString("purpose_preview"), rs.getBoolean("purpose_truncated"));
+            // Interned like RowMappers does, so only the column lookups differ
+            booking.setUserName(NameDictionary.USER_NAMES.intern(booking.getUserId(), rs.getString("user_name")));
+            booking.setUserEmail(NameDictionary.USER_EMAILS.intern(booking.getUserId(), rs.getString("user_email")));
+            booking.setRoomName(NameDictionary.ROOM_NAMES.intern(booking.getRoomId(), rs.getString("room_name")));
+            bookings[i] = booking;
+        }
+        return bookings;
+    }
+
+    private static Object[][] generateRows(int count) {
+        Object[][] rows = new Object[count][];
+        LocalDate firstDay = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < count; i++) {
+            int userId = i % 500;
+            int roomId = i % 40;
+            rows[i] = new Object[]{i + 1, userId, roomId, Date.valueOf(firstDay.plusDays(i % 365)),
+                    Time.valueOf("10:00:00"), Time.valueOf("11:30:00"), i % 3 == 0 ? "pending" : "approved",
+                    "Weekly meeting of team " + (i % 97), Boolean.FALSE,
+                    "User " + userId, "user" + userId + "@example.com", "Room " + roomId};
+        }
+        return rows;
+    }
+
+    /**
+     * A forward-only ResultSet over the given rows that resolves labels the way drivers do,
+     * through a case-insensitive label map on every by-label call.
+     */
+    private static ResultSet stubResultSet(Object[][] rows) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            indexes.put(COLUMNS[i], i + 1);
+        }
+        ResultSetMetaData meta = (ResultSetMetaData) Proxy.newProxyInstance(RowMapperBenchmark.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getColumnCount": return COLUMNS.length;
+                case "getColumnLabel":
+                case "getColumnName": return COLUMNS[(Integer) args[0] - 1];
+                default: throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        InvocationHandler handler = new InvocationHandler() {
+            private int row = -1;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                    case "next": return ++row < rows.length;
+                    case "getMetaData": return meta;
+                    case "findColumn": return column(args[0]);
+                    case "getInt":
+                    case "getDate":
+                    case "getTime":
+                    case "getString":
+                    case "getBoolean": return rows[row][column(args[0]) - 1];
+                    case "wasNull": return false;
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            }
+
+            private int column(Object indexOrLabel) {
+                if (indexOrLabel instanceof Integer) return (Integer) indexOrLabel;
+                Integer index = indexes.get(((String) indexOrLabel).toLowerCase(Locale.ROOT));
+                if (index == null) throw new IllegalArgumentException("No column " + indexOrLabel);
+                return index;
+            }
+        };
+        return (ResultSet) Proxy.newProxyInstance(RowMapperBenchmark.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, handler);
+    }
+}
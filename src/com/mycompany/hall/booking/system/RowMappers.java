@@ -0,0 +1,101 @@
+// RowMappers.java
+// RowMapper factories for Booking, Room and User. Each factory resolves the column indexes of the
+// given ResultSet once; columns the query did not select are skipped and the field stays unset.
+package com.mycompany.hall.booking.system;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public final class RowMappers {
+
+    private RowMappers() {
+    }
+
+    public static RowMapper<Booking> bookings(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.indexOf("id");
+        int userId = columns.indexOf("user_id");
+        int roomId = columns.indexOf("room_id");
+        int date = columns.indexOf("date");
+        int startTime = columns.indexOf("start_time");
+        int endTime = columns.indexOf("end_time");
+        int purpose = columns.indexOf("purpose");
+        int purposePreview = columns.indexOf("purpose_preview");
+        int purposeTruncated = columns.indexOf("purpose_truncated");
+        int status = columns.indexOf("status");
+        int roomName = columns.indexOf("room_name");
+        int userName = columns.indexOf("user_name");
+        int userEmail = columns.indexOf("user_email");
+        return row -> {
+            Booking booking = new Booking();
+            if (id > 0) booking.setId(row.getInt(id));
+            if (userId > 0) booking.setUserId(row.getInt(userId));
+            if (roomId > 0) booking.setRoomId(row.getInt(roomId));
+            if (date > 0) booking.setDate(row.getDate(date));
+            if (startTime > 0) booking.setStartTime(row.getTime(startTime));
+            if (endTime > 0) booking.setEndTime(row.getTime(endTime));
+            if (purpose > 0) {
+                booking.setPurpose(row.getString(purpose));
+            } else if (purposePreview > 0) {
+                booking.setPurposePreview(row.getString(purposePreview), purposeTruncated > 0 && row.getBoolean(purposeTruncated));
+            }
+            if (status > 0) booking.setStatus(row.getString(status));
+            // Joined names go through the dictionaries so rows for the same room or user share them
+            if (roomName > 0) booking.setRoomName(NameDictionary.ROOM_NAMES.intern(booking.getRoomId(), row.getString(roomName)));
+            if (userName > 0) booking.setUserName(NameDictionary.USER_NAMES.intern(booking.getUserId(), row.getString(userName)));
+            if (userEmail > 0) booking.setUserEmail(NameDictionary.USER_EMAILS.intern(booking.getUserId(), row.getString(userEmail)));
+            return booking;
+        };
+    }
+
+    public static RowMapper<Room> rooms(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.indexOf("id");
+        int name = columns.indexOf("name");
+        int capacity = columns.indexOf("capacity");
+        return row -> new Room(
+            id > 0 ? row.getInt(id) : 0,
+            name > 0 ? row.getString(name) : null,
+            capacity > 0 ? row.getInt(capacity) : 0
+        );
+    }
+
+    public static RowMapper<User> users(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.indexOf("id");
+        int name = columns.indexOf("name");
+        int email = columns.indexOf("email");
+        int password = columns.indexOf("password");
+        int role = columns.indexOf("role");
+        return row -> new User(
+            id > 0 ? row.getInt(id) : 0,
+            name > 0 ? row.getString(name) : null,
+            email > 0 ? row.getString(email) : null,
+            password > 0 ? row.getString(password) : null,
+            role > 0 ? row.getString(role) : null
+        );
+    }
+
+    /**
+     * Column label to 1-based index, read once from the result set's metadata.
+     */
+    private static final class Columns {
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        Columns(ResultSet rs) throws SQLException {
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int i = meta.getColumnCount(); i >= 1; i--) {
+                // Like ResultSet.findColumn: case-insensitive, and the first column wins on duplicates
+                indexes.put(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        int indexOf(String label) {
+            return indexes.getOrDefault(label, -1);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+// SchemaMigrator.java
+// Brings the database schema up to date at startup by running the numbered SQL scripts in the
+// "migrations" package that have not been applied yet, recording each one in `schema_version`.
+package com.mycompany.hall.booking.system;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class SchemaMigrator {
+
+    // Resources can't be listed from a jar, so every script is named here, in order.
+    // Add new scripts at the end; never edit or renumber one that has been released.
+    private static final String[] SCRIPTS = {
+        "001_booking_change_log.sql",
+        "002_booking_indexes.sql",
+        "003_room_day_locks.sql",
+        "004_room_usage_daily.sql",
+        "005_bookings_archive.sql",
+        "006_change_log_retention.sql",
+    };
+
+    private static final String LOCK_NAME = "hallbooking_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private SchemaMigrator() {
+    }
+
+    /**
+     * Applies all pending migrations. Several clients may start at once; a named lock makes
+     * them run the scripts one after another.
+     * @return true if the schema is up to date
+     */
+    public static boolean migrate() {
+        Connection conn = DatabaseManager.getConnection();
+        if (conn == null) return false;
+        try (conn) {
+            if (!acquireLock(conn)) {
+                System.err.println("Schema migration error: timed out waiting for another client's migration");
+                return false;
+            }
+            try {
+                createVersionTable(conn);
+                Set<Integer> applied = appliedVersions(conn);
+                for (String script : SCRIPTS) {
+                    int version = Integer.parseInt(script.substring(0, script.indexOf('_')));
+                    if (!applied.contains(version)) {
+                        apply(conn, version, script);
+                    }
+                }
+                return true;
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Schema migration error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void apply(Connection conn, int version, String script) throws SQLException, IOException {
+        long start = System.nanoTime();
+        try (Statement st = conn.createStatement()) {
+            // MySQL commits DDL implicitly, so each statement takes effect as it runs; the scripts
+            // are written to be safe to re-run if one fails halfway.
+            for (String sql : readStatements(script)) {
+                st.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Migration " + script + " failed: " + e.getMessage(), e);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        String sql = "INSERT INTO schema_version (version, script, execution_ms) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, version);
+            ps.setString(2, script);
+            ps.setLong(3, millis);
+            ps.executeUpdate();
+        }
+        System.out.println("Applied migration " + script + " in " + millis + " ms");
+    }
+
+    /**
+     * Splits a script into statements, honouring the mysql client's DELIMITER command
+     * (needed for trigger bodies) and skipping "--" comment lines.
+     */
+    static List<String> readStatements(String script) throws IOException {
+        InputStream in = SchemaMigrator.class.getResourceAsStream("migrations/" + script);
+        if (in == null) throw new IOException("Migration script not found: " + script);
+        List<String> statements = new ArrayList<>();
+        String delimiter = ";";
+        StringBuilder current = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (current.length() == 0 && (trimmed.isEmpty() || trimmed.startsWith("--"))) continue;
+                if (trimmed.toUpperCase().startsWith("DELIMITER ")) {
+                    delimiter = trimmed.substring("DELIMITER ".length()).trim();
+                    continue;
+                }
+                current.append(line).append('\n');
+                if (trimmed.endsWith(delimiter)) {
+                    String sql = current.toString().trim();
+                    sql = sql.substring(0, sql.length() - delimiter.length()).trim();
+                    if (!sql.isEmpty()) statements.add(sql);
+                    current.setLength(0);
+                }
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_version ("
+                   + "version int(11) NOT NULL PRIMARY KEY, "
+                   + "script varchar(200) NOT NULL, "
+                   + "execution_ms bigint(20) NOT NULL, "
+                   + "applied_at timestamp NOT NULL DEFAULT current_timestamp()"
+                   + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private static Set<Integer> appliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+// SnapshotStore.java
+// A local copy of the rooms and one user's bookings, kept in a small binary file per user. It is
+// written through a memory-mapped buffer and read back into a heap buffer, so no mapping of the
+// live file outlives a load (Windows refuses to replace a file that is still mapped). UserDashboard shows it the moment it opens, and keeps showing
+// it (read-only) while the database is unreachable; the snapshot's change-log version lets the
+// dashboard catch up with just the changes once the connection returns.
+// Files live in ~/.hallbooking/snapshots unless -Dhallbooking.snapshot.dir says otherwise.
+package com.mycompany.hall.booking.system;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+public final class SnapshotStore {
+
+    private static final Path DIR = Paths.get(System.getProperty("hallbooking.snapshot.dir",
+            System.getProperty("user.home") + "/.hallbooking/snapshots"));
+
+    private static final int MAGIC = 0x48425331; // "HBS1"
+    // Version 1 files also held a password hash; they are ignored and overwritten on the next sync
+    private static final int FORMAT_VERSION = 2;
+
+    private SnapshotStore() {
+    }
+
+    /**
+     * What was on screen at the last successful sync.
+     */
+    public static final class Snapshot {
+        private final User user;
+        private final long changeVersion;
+        private final long savedAtMillis;
+        private final List<Room> rooms;
+        private final List<Booking> bookings;
+
+        Snapshot(User user, long changeVersion, long savedAtMillis, List<Room> rooms, List<Booking> bookings) {
+            this.user = user;
+            this.changeVersion = changeVersion;
+            this.savedAtMillis = savedAtMillis;
+            this.rooms = rooms;
+            this.bookings = bookings;
+        }
+
+        public User getUser() { return user; }
+        public long getChangeVersion() { return changeVersion; }
+        public long getSavedAtMillis() { return savedAtMillis; }
+        public List<Room> getRooms() { return rooms; }
+        public List<Booking> getBookings() { return bookings; }
+    }
+
+    /**
+     * Reads the snapshot saved for this email address.
+     * Returns null if there is none, or it is unreadable or from another format version.
+     */
+    public static Snapshot load(String email) {
+        Path file = fileFor(email);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Snapshot too large: " + size + " bytes");
+            ByteBuffer in = ByteBuffer.allocate((int) size);
+            while (in.hasRemaining() && channel.read(in) >= 0) {
+                // Read it all
+            }
+            in.flip();
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) return null;
+            long changeVersion = in.getLong();
+            long savedAtMillis = in.getLong();
+            User user = new User(in.getInt(), getString(in), getString(in), null, getString(in));
+
+            int roomCount = in.getInt();
+            List<Room> rooms = new ArrayList<>(Math.min(roomCount, in.remaining()));
+            for (int i = 0; i < roomCount; i++) {
+                int id = in.getInt();
+                int capacity = in.getInt();
+                rooms.add(new Room(id, getString(in), capacity));
+            }
+
+            int bookingCount = in.getInt();
+            List<Booking> bookings = new ArrayList<>(Math.min(bookingCount, in.remaining()));
+            for (int i = 0; i < bookingCount; i++) {
+                Booking booking = new Booking();
+                booking.setId(in.getInt());
+                booking.setUserId(in.getInt());
+                booking.setRoomId(in.getInt());
+                booking.setDate(Date.valueOf(LocalDate.ofEpochDay(in.getInt())));
+                booking.setStartTime(Time.valueOf(LocalTime.ofSecondOfDay(in.getInt())));
+                booking.setEndTime(Time.valueOf(LocalTime.ofSecondOfDay(in.getInt())));
+                booking.setStatus(getString(in));
+                booking.setRoomName(getString(in));
+                String purpose = getString(in);
+                booking.setPurposePreview(purpose, in.get() != 0);
+                bookings.add(booking);
+            }
+            return new Snapshot(user, changeVersion, savedAtMillis, rooms, bookings);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            System.err.println("Snapshot read error for " + file + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the user's snapshot. The file is written in full under a temporary name and then
+     * moved over the old one, so a crash mid-write leaves the previous snapshot intact.
+     *
+     * @return false if it could not be written (the previous snapshot, if any, is kept)
+     */
+    public static boolean save(User user, long changeVersion, Collection<Room> rooms, Collection<Booking> bookings) {
+        byte[][] strings = new byte[3 + rooms.size() + 3 * bookings.size()][];
+        int s = 0;
+        strings[s++] = utf8(user.getName());
+        strings[s++] = utf8(user.getEmail());
+        strings[s++] = utf8(user.getRole());
+        for (Room room : rooms) {
+            strings[s++] = utf8(room.getName());
+        }
+        for (Booking booking : bookings) {
+            strings[s++] = utf8(booking.getStatus());
+            strings[s++] = utf8(booking.getRoomName());
+            strings[s++] = utf8(booking.getPurpose());
+        }
+
+        // Fixed-size fields first, then every string as a length and its UTF-8 bytes
+        long size = 4 + 4 + 8 + 8 + 4 + 4 + 4 + rooms.size() * 8L + bookings.size() * (6 * 4L + 1);
+        for (byte[] string : strings) {
+            size += 4 + (string == null ? 0 : string.length);
+        }
+
+        Path file = fileFor(user.getEmail());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(DIR);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                s = 0;
+                out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(changeVersion).putLong(System.currentTimeMillis());
+                out.putInt(user.getId());
+                putBytes(out, strings[s++]);
+                putBytes(out, strings[s++]);
+                putBytes(out, strings[s++]);
+                out.putInt(rooms.size());
+                for (Room room : rooms) {
+                    out.putInt(room.getId()).putInt(room.getCapacity());
+                    putBytes(out, strings[s++]);
+                }
+                out.putInt(bookings.size());
+                for (Booking booking : bookings) {
+                    out.putInt(booking.getId()).putInt(booking.getUserId()).putInt(booking.getRoomId());
+                    out.putInt((int) booking.getDate().toLocalDate().toEpochDay());
+                    out.putInt(booking.getStartTime().toLocalTime().toSecondOfDay());
+                    out.putInt(booking.getEndTime().toLocalTime().toSecondOfDay());
+                    putBytes(out, strings[s++]);
+                    putBytes(out, strings[s++]);
+                    putBytes(out, strings[s++]);
+                    out.put((byte) (booking.isPurposeTruncated() ? 1 : 0));
+                }
+                out.force();
+            }
+            // If this fails (e.g. another program has the file open on Windows) the next save retries.
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Snapshot write error for " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // One file per account, named by a hash of the email so the address is not in the file name.
+    private static Path fileFor(String email) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            return DIR.resolve(HexFormat.of().formatHex(digest, 0, 16) + ".snapshot");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM has SHA-256
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        if (bytes == null) {
+            out.putInt(-1);
+            return;
+        }
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        if (length > in.remaining()) throw new BufferUnderflowException(); // Truncated or corrupt file
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = getBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+}
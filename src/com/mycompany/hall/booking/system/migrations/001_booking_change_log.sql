@@ -0,0 +1,27 @@
+--
+-- Change log filled by triggers on `bookings`; clients poll it with
+-- DatabaseManager.getBookingChangesSince(version) instead of reloading tables.
+-- Written to be safe on databases that already have the table and triggers.
+--
+
+CREATE TABLE IF NOT EXISTS `booking_changes` (
+  `version` bigint(20) NOT NULL AUTO_INCREMENT,
+  `booking_id` int(11) NOT NULL,
+  `operation` char(1) NOT NULL,
+  `changed_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  PRIMARY KEY (`version`),
+  KEY `booking_id` (`booking_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+DROP TRIGGER IF EXISTS `bookings_log_insert`;
+DROP TRIGGER IF EXISTS `bookings_log_update`;
+DROP TRIGGER IF EXISTS `bookings_log_delete`;
+
+DELIMITER $$
+CREATE TRIGGER `bookings_log_insert` AFTER INSERT ON `bookings` FOR EACH ROW INSERT INTO `booking_changes` (`booking_id`, `operation`) VALUES (NEW.id, 'I')
+$$
+CREATE TRIGGER `bookings_log_update` AFTER UPDATE ON `bookings` FOR EACH ROW INSERT INTO `booking_changes` (`booking_id`, `operation`) VALUES (NEW.id, 'U')
+$$
+CREATE TRIGGER `bookings_log_delete` AFTER DELETE ON `bookings` FOR EACH ROW INSERT INTO `booking_changes` (`booking_id`, `operation`) VALUES (OLD.id, 'D')
+$$
+DELIMITER ;
@@ -0,0 +1,18 @@
+--
+-- Composite indexes for the hot booking queries. The old single-column
+-- `user_id` and `room_id` keys are covered by the new ones (the foreign keys
+-- use their leading column), so they are dropped to keep inserts cheap.
+--
+--   (status, date)                 getPendingBookings: WHERE status = 'pending' ORDER BY date
+--   (room_id, date, start_time)    overlap checks and per-room/day lookups
+--   (user_id, date)                getBookingsByUser: WHERE user_id = ? ORDER BY date
+--   (date)                         keyset pages ORDER BY date DESC, id DESC; upcoming bookings
+--
+
+ALTER TABLE `bookings`
+  ADD KEY `status_date` (`status`, `date`),
+  ADD KEY `room_date_start` (`room_id`, `date`, `start_time`),
+  ADD KEY `user_date` (`user_id`, `date`),
+  ADD KEY `date` (`date`),
+  DROP KEY `user_id`,
+  DROP KEY `room_id`;
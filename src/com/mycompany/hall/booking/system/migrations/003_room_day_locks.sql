@@ -0,0 +1,12 @@
+--
+-- One row per room and day that has ever been booked. createBooking locks the
+-- row (INSERT ... ON DUPLICATE KEY UPDATE) before checking for overlaps and
+-- inserting, so two bookings for the same room-day are serialized while
+-- bookings for other rooms or days never wait on each other.
+--
+
+CREATE TABLE IF NOT EXISTS `room_day_locks` (
+  `room_id` int(11) NOT NULL,
+  `date` date NOT NULL,
+  PRIMARY KEY (`room_id`, `date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
@@ -0,0 +1,89 @@
+--
+-- Per room and day booking totals for the usage reports. Triggers on `bookings`
+-- apply each insert, status change and delete as a delta, so a month or year
+-- report reads a few rows per room instead of scanning every booking.
+-- RoomUsageRollup.rebuild() recomputes the table from `bookings` if it drifts.
+--
+
+CREATE TABLE IF NOT EXISTS `room_usage_daily` (
+  `room_id` int(11) NOT NULL,
+  `date` date NOT NULL,
+  `pending_count` int(11) NOT NULL DEFAULT 0,
+  `approved_count` int(11) NOT NULL DEFAULT 0,
+  `rejected_count` int(11) NOT NULL DEFAULT 0,
+  `requested_minutes` int(11) NOT NULL DEFAULT 0,
+  `approved_minutes` int(11) NOT NULL DEFAULT 0,
+  PRIMARY KEY (`room_id`, `date`),
+  KEY `date` (`date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+DROP TRIGGER IF EXISTS `bookings_usage_insert`;
+DROP TRIGGER IF EXISTS `bookings_usage_update`;
+DROP TRIGGER IF EXISTS `bookings_usage_delete`;
+
+DELIMITER $$
+CREATE TRIGGER `bookings_usage_insert` AFTER INSERT ON `bookings` FOR EACH ROW
+INSERT INTO `room_usage_daily` (`room_id`, `date`, `pending_count`, `approved_count`, `rejected_count`, `requested_minutes`, `approved_minutes`)
+VALUES (NEW.room_id, NEW.date, NEW.status = 'pending', NEW.status = 'approved', NEW.status = 'rejected',
+        (TIME_TO_SEC(NEW.end_time) - TIME_TO_SEC(NEW.start_time)) DIV 60,
+        IF(NEW.status = 'approved', (TIME_TO_SEC(NEW.end_time) - TIME_TO_SEC(NEW.start_time)) DIV 60, 0))
+ON DUPLICATE KEY UPDATE
+  `pending_count` = `pending_count` + VALUES(`pending_count`),
+  `approved_count` = `approved_count` + VALUES(`approved_count`),
+  `rejected_count` = `rejected_count` + VALUES(`rejected_count`),
+  `requested_minutes` = `requested_minutes` + VALUES(`requested_minutes`),
+  `approved_minutes` = `approved_minutes` + VALUES(`approved_minutes`)
+$$
+CREATE TRIGGER `bookings_usage_update` AFTER UPDATE ON `bookings` FOR EACH ROW
+BEGIN
+  -- Purpose edits leave the totals alone; anything else moves the booking out of its old bucket and into the new one
+  IF NOT (OLD.room_id <=> NEW.room_id AND OLD.date <=> NEW.date AND OLD.status <=> NEW.status
+          AND OLD.start_time <=> NEW.start_time AND OLD.end_time <=> NEW.end_time) THEN
+    UPDATE `room_usage_daily` SET
+      `pending_count` = `pending_count` - (OLD.status = 'pending'),
+      `approved_count` = `approved_count` - (OLD.status = 'approved'),
+      `rejected_count` = `rejected_count` - (OLD.status = 'rejected'),
+      `requested_minutes` = `requested_minutes` - (TIME_TO_SEC(OLD.end_time) - TIME_TO_SEC(OLD.start_time)) DIV 60,
+      `approved_minutes` = `approved_minutes` - IF(OLD.status = 'approved', (TIME_TO_SEC(OLD.end_time) - TIME_TO_SEC(OLD.start_time)) DIV 60, 0)
+    WHERE `room_id` = OLD.room_id AND `date` = OLD.date;
+    INSERT INTO `room_usage_daily` (`room_id`, `date`, `pending_count`, `approved_count`, `rejected_count`, `requested_minutes`, `approved_minutes`)
+    VALUES (NEW.room_id, NEW.date, NEW.status = 'pending', NEW.status = 'approved', NEW.status = 'rejected',
+            (TIME_TO_SEC(NEW.end_time) - TIME_TO_SEC(NEW.start_time)) DIV 60,
+            IF(NEW.status = 'approved', (TIME_TO_SEC(NEW.end_time) - TIME_TO_SEC(NEW.start_time)) DIV 60, 0))
+    ON DUPLICATE KEY UPDATE
+      `pending_count` = `pending_count` + VALUES(`pending_count`),
+      `approved_count` = `approved_count` + VALUES(`approved_count`),
+      `rejected_count` = `rejected_count` + VALUES(`rejected_count`),
+      `requested_minutes` = `requested_minutes` + VALUES(`requested_minutes`),
+      `approved_minutes` = `approved_minutes` + VALUES(`approved_minutes`);
+  END IF;
+END
+$$
+CREATE TRIGGER `bookings_usage_delete` AFTER DELETE ON `bookings` FOR EACH ROW
+UPDATE `room_usage_daily` SET
+  `pending_count` = `pending_count` - (OLD.status = 'pending'),
+  `approved_count` = `approved_count` - (OLD.status = 'approved'),
+  `rejected_count` = `rejected_count` - (OLD.status = 'rejected'),
+  `requested_minutes` = `requested_minutes` - (TIME_TO_SEC(OLD.end_time) - TIME_TO_SEC(OLD.start_time)) DIV 60,
+  `approved_minutes` = `approved_minutes` - IF(OLD.status = 'approved', (TIME_TO_SEC(OLD.end_time) - TIME_TO_SEC(OLD.start_time)) DIV 60, 0)
+WHERE `room_id` = OLD.room_id AND `date` = OLD.date
+$$
+DELIMITER ;
+
+-- Existing bookings, counted once; from here on the triggers keep the table current.
+-- The triggers are already live and each statement commits on its own, so a booking written
+-- between the DELETE and the INSERT has its row created by a trigger first. The backfill
+-- assigns its totals over such rows (which it counts too) instead of failing on the key.
+DELETE FROM `room_usage_daily`;
+INSERT INTO `room_usage_daily` (`room_id`, `date`, `pending_count`, `approved_count`, `rejected_count`, `requested_minutes`, `approved_minutes`)
+SELECT `room_id`, `date`, SUM(`status` = 'pending'), SUM(`status` = 'approved'), SUM(`status` = 'rejected'),
+       SUM((TIME_TO_SEC(`end_time`) - TIME_TO_SEC(`start_time`)) DIV 60),
+       SUM(IF(`status` = 'approved', (TIME_TO_SEC(`end_time`) - TIME_TO_SEC(`start_time`)) DIV 60, 0))
+FROM `bookings`
+GROUP BY `room_id`, `date`
+ON DUPLICATE KEY UPDATE
+  `pending_count` = VALUES(`pending_count`),
+  `approved_count` = VALUES(`approved_count`),
+  `rejected_count` = VALUES(`rejected_count`),
+  `requested_minutes` = VALUES(`requested_minutes`),
+  `approved_minutes` = VALUES(`approved_minutes`);
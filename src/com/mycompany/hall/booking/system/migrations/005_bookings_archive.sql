@@ -0,0 +1,48 @@
+--
+-- Approved and rejected bookings past the archive horizon are moved here by
+-- BookingArchiver, so the live `bookings` table and the admin lists that scan
+-- it stay small. Range-partitioned by month on `date`: BookingArchiver splits
+-- a new monthly partition off `p_future` before moving a month in, and old
+-- months can later be dropped or exported a partition at a time.
+-- Partitioned tables cannot have foreign keys, and every unique key must
+-- contain `date`, hence the (id, date) primary key.
+--
+
+CREATE TABLE IF NOT EXISTS `bookings_archive` (
+  `id` int(11) NOT NULL,
+  `user_id` int(11) NOT NULL,
+  `room_id` int(11) NOT NULL,
+  `date` date NOT NULL,
+  `start_time` time NOT NULL,
+  `end_time` time NOT NULL,
+  `purpose` text DEFAULT NULL,
+  `status` varchar(20) NOT NULL,
+  `archived_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  PRIMARY KEY (`id`, `date`),
+  KEY `date` (`date`),
+  KEY `user_date` (`user_id`, `date`),
+  KEY `room_date` (`room_id`, `date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci
+PARTITION BY RANGE (TO_DAYS(`date`)) (
+  PARTITION `p_future` VALUES LESS THAN MAXVALUE
+);
+
+-- Archiving deletes from `bookings` with @hb_archiving set. Those bookings
+-- still happened, so the usage rollup keeps counting them.
+DROP TRIGGER IF EXISTS `bookings_usage_delete`;
+
+DELIMITER $$
+CREATE TRIGGER `bookings_usage_delete` AFTER DELETE ON `bookings` FOR EACH ROW
+BEGIN
+  IF @hb_archiving IS NULL THEN
+    UPDATE `room_usage_daily` SET
+      `pending_count` = `pending_count` - (OLD.status = 'pending'),
+      `approved_count` = `approved_count` - (OLD.status = 'approved'),
+      `rejected_count` = `rejected_count` - (OLD.status = 'rejected'),
+      `requested_minutes` = `requested_minutes` - (TIME_TO_SEC(OLD.end_time) - TIME_TO_SEC(OLD.start_time)) DIV 60,
+      `approved_minutes` = `approved_minutes` - IF(OLD.status = 'approved', (TIME_TO_SEC(OLD.end_time) - TIME_TO_SEC(OLD.start_time)) DIV 60, 0)
+    WHERE `room_id` = OLD.room_id AND `date` = OLD.date;
+  END IF;
+END
+$$
+DELIMITER ;
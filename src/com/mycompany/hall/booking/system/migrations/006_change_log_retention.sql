@@ -0,0 +1,21 @@
+--
+-- Rows removed from `bookings` by a foreign key cascade do not fire its
+-- triggers, so deleting a user or a room used to leave their bookings out of
+-- the change log (and out of the usage rollup). DatabaseManager.deleteRoom
+-- now deletes the room's bookings itself before the room; users have no
+-- delete in the application, so this trigger does the same for deletes made
+-- directly in the database.
+--
+-- The `changed_at` key lets ChangeLogPruner find the first change inside the
+-- retention window without scanning the log.
+--
+
+ALTER TABLE `booking_changes`
+  ADD KEY `changed_at` (`changed_at`);
+
+DROP TRIGGER IF EXISTS `users_delete_bookings`;
+
+DELIMITER $$
+CREATE TRIGGER `users_delete_bookings` BEFORE DELETE ON `users` FOR EACH ROW DELETE FROM `bookings` WHERE `user_id` = OLD.id
+$$
+DELIMITER ;
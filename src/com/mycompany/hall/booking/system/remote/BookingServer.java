@@ -0,0 +1,425 @@
+// BookingServer.java
+// Headless server mode: one process owns the connection pool and the caches, and desktop
+// clients started with -Dhallbooking.serverUrl reach the data through its JSON API instead
+// of each opening their own MySQL connections.
+//
+// Every call is POST /api/<operation> with a JSON object of arguments, answered with
+// {"result": ...} or {"error": "..."}. validateLogin returns a session token that the client
+// sends back in the X-Session-Token header; sessions end with logout or after sitting idle, and a
+// call with an unknown token gets 401 so the client can send the user back to the login screen. Exports are GET /export?format=csv|jsonl&gzip=true|false.
+// GET /events is a server-sent event stream ("event: bookings" / "event: rooms") that tells
+// clients when to fetch changes, so idle clients no longer poll the database.
+package com.mycompany.hall.booking.system.remote;
+
+import com.mycompany.hall.booking.system.Booking;
+import com.mycompany.hall.booking.system.BookingChanges;
+import com.mycompany.hall.booking.system.BookingDataAccess;
+import com.mycompany.hall.booking.system.BookingExporter;
+import com.mycompany.hall.booking.system.ChangeEventBus;
+import com.mycompany.hall.booking.system.JdbcBookingDataAccess;
+import com.mycompany.hall.booking.system.RoomUsage;
+import com.mycompany.hall.booking.system.SchemaMigrator;
+import com.mycompany.hall.booking.system.User;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BookingServer {
+
+    static final String SESSION_HEADER = "X-Session-Token";
+
+    // Comment line sent on a quiet event stream so proxies and the client notice dead connections.
+    private static final long HEARTBEAT_MS = 25000;
+    // How often the change log is checked for bookings written by clients that bypass this server.
+    private static final long CHANGE_LOG_CHECK_MS = 2000;
+    // A session unused for this long is dropped; -Dhallbooking.server.sessionIdleMinutes overrides it.
+    private static final long SESSION_IDLE_MS = TimeUnit.MINUTES.toMillis(Long.getLong("hallbooking.server.sessionIdleMinutes", 30));
+    private static final long SESSION_PURGE_MS = 60000;
+
+    private final BookingDataAccess data = new JdbcBookingDataAccess();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final HttpServer server;
+    // Runs the change-log check and drops idle sessions
+    private final ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "booking-server-housekeeper");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicInteger eventStreams = new AtomicInteger();
+    private volatile long lastSeenChangeVersion = -1;
+
+    /**
+     * Thrown by an operation to answer with an HTTP error status.
+     */
+    private static final class ApiException extends Exception {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static final class Session {
+        final User user;
+        volatile long lastUsedMillis = System.currentTimeMillis();
+
+        Session(User user) {
+            this.user = user;
+        }
+
+        boolean isExpired(long now) {
+            return now - lastUsedMillis > SESSION_IDLE_MS;
+        }
+    }
+
+    public BookingServer(String host, int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        // One cheap virtual thread per request; the connection pool bounds the database load.
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/", this::handleApi);
+        server.createContext("/export", this::handleExport);
+        server.createContext("/events", this::handleEvents);
+    }
+
+    public void start() {
+        server.start();
+        housekeeper.scheduleWithFixedDelay(this::checkChangeLog, CHANGE_LOG_CHECK_MS, CHANGE_LOG_CHECK_MS, TimeUnit.MILLISECONDS);
+        housekeeper.scheduleWithFixedDelay(this::purgeSessions, SESSION_PURGE_MS, SESSION_PURGE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        housekeeper.shutdownNow();
+        server.stop(1);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = System.getProperty("hallbooking.server.host", "127.0.0.1");
+        int port = Integer.getInteger("hallbooking.server.port", 8085);
+        if (!SchemaMigrator.migrate()) {
+            System.err.println("Booking server: the database schema could not be brought up to date");
+        }
+        new BookingServer(host, port).start();
+        System.out.println("Booking server listening on http://" + host + ":" + port);
+    }
+
+    private void handleApi(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) throw new ApiException(405, "Use POST");
+            String operation = exchange.getRequestURI().getPath().substring("/api/".length());
+            Map<?, ?> args = readBody(exchange);
+            String token = String.valueOf(exchange.getRequestHeaders().getFirst(SESSION_HEADER));
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("result", call(operation, args, token));
+            respond(exchange, 200, response);
+        } catch (ApiException e) {
+            respond(exchange, e.status, Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            System.err.println("Booking server error: " + e);
+            respond(exchange, 400, Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private Object call(String operation, Map<?, ?> args, String token) throws ApiException {
+        switch (operation) {
+            // Open to anyone: logging in and out, signing up, and checking the database is up
+            case "validateLogin": {
+                User user = data.validateLogin(ModelJson.string(args, "email"), ModelJson.string(args, "password"));
+                if (user == null) return null;
+                String newToken = newToken();
+                sessions.put(newToken, new Session(user));
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("user", ModelJson.user(user));
+                result.put("token", newToken);
+                return result;
+            }
+            case "logout":
+                return sessions.remove(token) != null;
+            case "registerUser": {
+                User user = ModelJson.user(args.get("user"));
+                user.setRole("user"); // Admins are not created through the API
+                return data.registerUser(user);
+            }
+            case "ping":
+                return data.isReachable();
+            default:
+                break;
+        }
+
+        User caller = sessionUser(token);
+        if (caller == null) throw new ApiException(401, "Not logged in");
+        boolean admin = "admin".equalsIgnoreCase(caller.getRole());
+        switch (operation) {
+            case "getUserByEmail": {
+                // Logged in only, and only your own account unless you are an admin, so it can't be used to probe emails
+                String email = ModelJson.string(args, "email");
+                if (!admin && !caller.getEmail().equalsIgnoreCase(email)) throw new ApiException(403, "Not your account");
+                return ModelJson.user(data.getUserByEmail(email));
+            }
+            case "getAvailableRooms":
+                return ModelJson.list(data.getAvailableRooms(), ModelJson::room);
+            case "findFreeRooms":
+                return ModelJson.list(data.findFreeRooms(ModelJson.intValue(args, "minCapacity"),
+                        LocalDate.parse(ModelJson.string(args, "fromDate")), LocalDate.parse(ModelJson.string(args, "toDate")),
+                        LocalTime.parse(ModelJson.string(args, "start")), LocalTime.parse(ModelJson.string(args, "end"))),
+                        ModelJson::room);
+            case "createBooking": {
+                Booking booking = ModelJson.booking(args.get("booking"));
+                if (!admin) {
+                    // Users book for themselves, and always as a pending request
+                    booking.setUserId(caller.getId());
+                    booking.setStatus("pending");
+                }
+                return ModelJson.bookingResult(data.createBooking(booking));
+            }
+            case "getBookingsByUser": {
+                int userId = ModelJson.intValue(args, "userId");
+                requireSelfOrAdmin(caller, admin, userId);
+                return ModelJson.list(data.getBookingsByUser(userId), ModelJson::booking);
+            }
+            case "getBookingPurpose": {
+                int bookingId = ModelJson.intValue(args, "bookingId");
+                if (!admin && !ownsBooking(caller, bookingId)) throw new ApiException(403, "Not your booking");
+                return data.getBookingPurpose(bookingId);
+            }
+            case "getCurrentChangeVersion":
+                return data.getCurrentChangeVersion();
+            case "getBookingChangesSince": {
+                BookingChanges changes = data.getBookingChangesSince(ModelJson.longValue(args, "version"));
+                // Users only see their own bookings change; other ids are deleted from tables that never had them
+                if (changes != null && !admin) changes = changes.forUser(caller.getId());
+                return ModelJson.bookingChanges(changes);
+            }
+            case "deleteBooking": {
+                int bookingId = ModelJson.intValue(args, "bookingId");
+                if (!admin && !ownsBooking(caller, bookingId)) throw new ApiException(403, "Not your booking");
+                return data.deleteBooking(bookingId);
+            }
+            default:
+                break;
+        }
+
+        if (!admin) throw new ApiException(403, "Admins only");
+        switch (operation) {
+            case "addRoom":
+                return data.addRoom(ModelJson.room(args.get("room")));
+            case "updateRoom":
+                return data.updateRoom(ModelJson.intValue(args, "roomId"), ModelJson.string(args, "name"), ModelJson.intValue(args, "capacity"));
+            case "deleteRoom":
+                return data.deleteRoom(ModelJson.intValue(args, "roomId"));
+            case "getPendingBookings":
+                return ModelJson.list(data.getPendingBookings(), ModelJson::booking);
+            case "getBookingsPage":
+                return ModelJson.list(data.getBookingsPage(ModelJson.date(ModelJson.string(args, "afterDate")),
+                        ModelJson.intValue(args, "afterId"), ModelJson.intValue(args, "limit"),
+                        ModelJson.bool(args, "includeArchive")), ModelJson::booking);
+            case "updateBookingStatuses":
+                return data.updateBookingStatuses(ModelJson.intArray(args.get("bookingIds")), ModelJson.string(args, "status"));
+            case "getRoomUsage":
+                return ModelJson.list(data.getRoomUsage(Date.valueOf(ModelJson.string(args, "from")),
+                        Date.valueOf(ModelJson.string(args, "to")), RoomUsage.Period.valueOf(ModelJson.string(args, "period"))),
+                        ModelJson::roomUsage);
+            case "rebuildRoomUsage":
+                return data.rebuildRoomUsage();
+            case "getOperationStats":
+                return ModelJson.list(data.getOperationStats(), ModelJson::operationStats);
+            case "getStatementStats":
+                return ModelJson.list(data.getStatementStats(), ModelJson::statementStats);
+            case "getPoolSummary":
+                return data.getPoolSummary();
+            case "resetOperationStats":
+                data.resetOperationStats();
+                return true;
+            case "updatePendingBookingStatuses":
+                return data.updatePendingBookingStatuses(ModelJson.intValue(args, "roomId"),
+                        Date.valueOf(ModelJson.string(args, "date")), ModelJson.string(args, "status"));
+            default:
+                throw new ApiException(404, "Unknown operation: " + operation);
+        }
+    }
+
+    private void requireSelfOrAdmin(User caller, boolean admin, int userId) throws ApiException {
+        if (!admin && caller.getId() != userId) throw new ApiException(403, "Not your bookings");
+    }
+
+    private boolean ownsBooking(User caller, int bookingId) {
+        for (Booking booking : data.getBookingsByUser(caller.getId())) {
+            if (booking.getId() == bookingId) return true;
+        }
+        return false;
+    }
+
+    // The user logged in with this token, or null if it is unknown or has sat idle too long.
+    private User sessionUser(String token) {
+        Session session = sessions.get(token);
+        if (session == null) return null;
+        long now = System.currentTimeMillis();
+        if (session.isExpired(now)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.lastUsedMillis = now;
+        return session.user;
+    }
+
+    private void purgeSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session.isExpired(now));
+    }
+
+    private void handleExport(HttpExchange exchange) throws IOException {
+        User caller = sessionUser(String.valueOf(exchange.getRequestHeaders().getFirst(SESSION_HEADER)));
+        if (caller == null) {
+            respond(exchange, 401, Map.of("error", "Not logged in"));
+            return;
+        }
+        if (!"admin".equalsIgnoreCase(caller.getRole())) {
+            respond(exchange, 403, Map.of("error", "Admins only"));
+            return;
+        }
+        String query = String.valueOf(exchange.getRequestURI().getQuery());
+        BookingExporter.Format format = query.contains("format=jsonl") ? BookingExporter.Format.JSON_LINES : BookingExporter.Format.CSV;
+        boolean gzip = query.contains("gzip=true");
+        try {
+            long total = BookingExporter.countBookings();
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.getResponseHeaders().set("X-Total-Rows", String.valueOf(total));
+            exchange.sendResponseHeaders(200, 0); // Chunked: the size is not known up front
+            BookingExporter.export(exchange.getResponseBody(), format, gzip, new BookingExporter.Listener() {
+                @Override
+                public void progress(long rowsWritten, long totalRows) {
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return false; // A client that gives up closes the connection, which fails the next write
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Booking server export error: " + e.getMessage());
+            respond(exchange, 503, Map.of("error", "Database not available"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        String token = String.valueOf(exchange.getRequestHeaders().getFirst(SESSION_HEADER));
+        Session session = sessionUser(token) == null ? null : sessions.get(token);
+        if (session == null) {
+            respond(exchange, 401, Map.of("error", "Not logged in"));
+            return;
+        }
+        BlockingQueue<String> topics = new LinkedBlockingQueue<>();
+        ChangeEventBus.Listener listener = topics::offer;
+        ChangeEventBus.getInstance().subscribe(listener);
+        eventStreams.incrementAndGet();
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            out.write(": connected\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            // An open stream keeps its session alive; logging out ends the stream
+            while (sessions.get(token) == session) {
+                session.lastUsedMillis = System.currentTimeMillis();
+                String topic = topics.poll(HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+                String event = topic == null ? ": heartbeat\n\n" : "event: " + topic + "\ndata: " + topic + "\n\n";
+                out.write(event.getBytes(StandardCharsets.UTF_8));
+                out.flush(); // Fails with an IOException once the client has gone away
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Client disconnected; it reconnects on its own if it is still running
+        } finally {
+            ChangeEventBus.getInstance().unsubscribe(listener);
+            eventStreams.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    // Writes made through this server publish on the bus directly; this catches bookings written by
+    // desktop clients still connected straight to MySQL. One cheap query for all streams, and none
+    // while nobody is listening.
+    private void checkChangeLog() {
+        if (eventStreams.get() == 0) {
+            lastSeenChangeVersion = -1;
+            return;
+        }
+        long version = data.getCurrentChangeVersion();
+        if (version == 0) return; // Database unreachable (or an empty log); check again later
+        long previous = lastSeenChangeVersion;
+        lastSeenChangeVersion = version;
+        if (previous >= 0 && version > previous) {
+            ChangeEventBus.getInstance().publish(ChangeEventBus.BOOKINGS);
+        }
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static Map<?, ?> readBody(HttpExchange exchange) throws ApiException, IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (body.isBlank()) return Map.of();
+            Object json = Json.parse(body);
+            if (!(json instanceof Map)) throw new ApiException(400, "Expected a JSON object");
+            return (Map<?, ?>) json;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, Map<String, ?> body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        try {
+            exchange.sendResponseHeaders(status, bytes.length);
+        } catch (IOException e) {
+            // Headers already sent (e.g. an export failing midway); nothing more can be said.
+            exchange.close();
+            return;
+        }
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // URI of an operation on a server, used by the client.
+    static URI apiUri(String serverUrl, String operation) {
+        return URI.create(serverUrl.replaceAll("/+$", "") + "/api/" + operation);
+    }
+
+    static URI eventsUri(String serverUrl) {
+        return URI.create(serverUrl.replaceAll("/+$", "") + "/events");
+    }
+
+    static URI exportUri(String serverUrl, BookingExporter.Format format, boolean gzip) {
+        return URI.create(serverUrl.replaceAll("/+$", "") + "/export?format="
+                + (format == BookingExporter.Format.JSON_LINES ? "jsonl" : "csv") + "&gzip=" + gzip);
+    }
+}
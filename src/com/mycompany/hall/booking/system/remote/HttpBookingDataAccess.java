@@ -0,0 +1,489 @@
+// HttpBookingDataAccess.java
+// BookingDataAccess that calls a BookingServer over HTTP. Like DatabaseManager, a call that
+// fails (server down, error response) is logged and answered with null, false, -1 or an empty list.
+package com.mycompany.hall.booking.system.remote;
+
+import com.mycompany.hall.booking.system.Booking;
+import com.mycompany.hall.booking.system.BookingChanges;
+import com.mycompany.hall.booking.system.BookingDataAccess;
+import com.mycompany.hall.booking.system.BookingExporter;
+import com.mycompany.hall.booking.system.BookingResult;
+import com.mycompany.hall.booking.system.ChangeEventBus;
+import com.mycompany.hall.booking.system.CircuitBreaker;
+import com.mycompany.hall.booking.system.OperationMetrics;
+import com.mycompany.hall.booking.system.QueryStatsInterceptor;
+import com.mycompany.hall.booking.system.Room;
+import com.mycompany.hall.booking.system.RoomUsage;
+import com.mycompany.hall.booking.system.User;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+public class HttpBookingDataAccess implements BookingDataAccess {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long MAX_RECONNECT_DELAY_MS = 30000;
+
+    private final String serverUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private volatile String sessionToken = "";
+    private volatile Runnable sessionExpiredHandler = () -> { };
+    private final List<ChangeEventBus.Listener> changeListeners = new CopyOnWriteArrayList<>();
+    private Thread eventThread;
+    // Opens when the server cannot be reached, so calls fail fast instead of each waiting out the connect timeout
+    private final CircuitBreaker breaker;
+
+    public HttpBookingDataAccess(String serverUrl) {
+        this.serverUrl = serverUrl;
+        this.breaker = new CircuitBreaker("booking-server", () -> {
+            try {
+                send("ping", args());
+                return true;
+            } catch (CallFailedException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Thrown internally when a call could not be completed.
+     */
+    private static final class CallFailedException extends Exception {
+        CallFailedException(String message) {
+            super(message);
+        }
+    }
+
+    /*==============================================*
+     * USERS
+     *==============================================*/
+
+    @Override
+    public boolean isReachable() {
+        try {
+            return Boolean.TRUE.equals(call("ping", args())); // The server and its database
+        } catch (CallFailedException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public User validateLogin(String email, String password) {
+        try {
+            Object result = call("validateLogin", args("email", email, "password", password));
+            if (result == null) return null;
+            Map<?, ?> login = (Map<?, ?>) result;
+            sessionToken = ModelJson.string(login, "token");
+            return ModelJson.user(login.get("user"));
+        } catch (CallFailedException e) {
+            return failed("validateLogin", e, null);
+        }
+    }
+
+    @Override
+    public boolean registerUser(User user) {
+        Map<String, Object> userJson = ModelJson.user(user);
+        userJson.put("password", user.getPassword()); // The one place a password travels to the server
+        return bool("registerUser", args("user", userJson));
+    }
+
+    @Override
+    public User getUserByEmail(String email) {
+        try {
+            return ModelJson.user(call("getUserByEmail", args("email", email)));
+        } catch (CallFailedException e) {
+            return failed("getUserByEmail", e, null);
+        }
+    }
+
+    @Override
+    public void logout() {
+        if (sessionToken.isEmpty()) return;
+        bool("logout", args());
+        sessionToken = "";
+    }
+
+    @Override
+    public void setSessionExpiredHandler(Runnable handler) {
+        sessionExpiredHandler = handler;
+    }
+
+    // The server no longer knows our token: stop using it and let the UI ask for a login.
+    private void sessionExpired(String token) {
+        synchronized (this) {
+            if (token.isEmpty() || !token.equals(sessionToken)) return; // Already handled, or a newer login
+            sessionToken = "";
+        }
+        sessionExpiredHandler.run();
+    }
+
+    /*==============================================*
+     * ROOMS
+     *==============================================*/
+
+    @Override
+    public List<Room> getAvailableRooms() {
+        return list("getAvailableRooms", args(), ModelJson::room);
+    }
+
+    @Override
+    public boolean addRoom(Room room) {
+        return bool("addRoom", args("room", ModelJson.room(room)));
+    }
+
+    @Override
+    public boolean updateRoom(int roomId, String name, int capacity) {
+        return bool("updateRoom", args("roomId", roomId, "name", name, "capacity", capacity));
+    }
+
+    @Override
+    public boolean deleteRoom(int roomId) {
+        return bool("deleteRoom", args("roomId", roomId));
+    }
+
+    @Override
+    public List<Room> findFreeRooms(int minCapacity, LocalDate fromDate, LocalDate toDate, LocalTime start, LocalTime end) {
+        return list("findFreeRooms", args("minCapacity", minCapacity, "fromDate", fromDate.toString(), "toDate", toDate.toString(),
+                "start", start.toString(), "end", end.toString()), ModelJson::room);
+    }
+
+    /*==============================================*
+     * BOOKINGS
+     *==============================================*/
+
+    @Override
+    public BookingResult createBooking(Booking booking) {
+        try {
+            BookingResult result = ModelJson.bookingResult(call("createBooking", args("booking", ModelJson.booking(booking))));
+            if (result.isCreated()) booking.setId(result.getBookingId());
+            return result;
+        } catch (CallFailedException e) {
+            return failed("createBooking", e, BookingResult.error(e.getMessage()));
+        }
+    }
+
+    @Override
+    public List<Booking> getBookingsByUser(int userId) {
+        return list("getBookingsByUser", args("userId", userId), ModelJson::booking);
+    }
+
+    @Override
+    public List<Booking> getPendingBookings() {
+        return list("getPendingBookings", args(), ModelJson::booking);
+    }
+
+    @Override
+    public List<Booking> getBookingsPage(Date afterDate, int afterId, int limit, boolean includeArchive) {
+        return list("getBookingsPage", args("afterDate", afterDate == null ? null : afterDate.toString(),
+                "afterId", afterId, "limit", limit, "includeArchive", includeArchive), ModelJson::booking);
+    }
+
+    @Override
+    public String getBookingPurpose(int bookingId) {
+        try {
+            Object result = call("getBookingPurpose", args("bookingId", bookingId));
+            return result == null ? null : result.toString();
+        } catch (CallFailedException e) {
+            return failed("getBookingPurpose", e, null);
+        }
+    }
+
+    @Override
+    public long getCurrentChangeVersion() {
+        try {
+            return ((Number) call("getCurrentChangeVersion", args())).longValue();
+        } catch (CallFailedException e) {
+            return failed("getCurrentChangeVersion", e, 0L);
+        }
+    }
+
+    @Override
+    public BookingChanges getBookingChangesSince(long version) {
+        try {
+            return ModelJson.bookingChanges(call("getBookingChangesSince", args("version", version)));
+        } catch (CallFailedException e) {
+            return failed("getBookingChangesSince", e, null);
+        }
+    }
+
+    @Override
+    public int updateBookingStatuses(int[] bookingIds, String status) {
+        return count("updateBookingStatuses", args("bookingIds", bookingIds, "status", status));
+    }
+
+    @Override
+    public int updatePendingBookingStatuses(int roomId, Date date, String status) {
+        return count("updatePendingBookingStatuses", args("roomId", roomId, "date", date.toString(), "status", status));
+    }
+
+    @Override
+    public boolean deleteBooking(int bookingId) {
+        return bool("deleteBooking", args("bookingId", bookingId));
+    }
+
+    @Override
+    public long exportBookings(Path target, BookingExporter.Format format, boolean gzip, BookingExporter.Listener listener)
+            throws IOException, SQLException {
+        String token = sessionToken;
+        HttpRequest request = HttpRequest.newBuilder(BookingServer.exportUri(serverUrl, format, gzip))
+                .header(BookingServer.SESSION_HEADER, token)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        }
+        if (response.statusCode() != 200) {
+            response.body().close();
+            if (response.statusCode() == 401) sessionExpired(token);
+            throw new SQLException("Export failed on the server (HTTP " + response.statusCode() + ")");
+        }
+        long totalRows = response.headers().firstValueAsLong("X-Total-Rows").orElse(0);
+        listener.progress(0, totalRows);
+        // The server already wrote the file's exact bytes (gzipped or not); copy them through.
+        try (InputStream in = response.body(); OutputStream out = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                if (listener.isCancelled()) return 0;
+                out.write(buffer, 0, read);
+            }
+        }
+        listener.progress(totalRows, totalRows);
+        return totalRows;
+    }
+
+    /*==============================================*
+     * DIAGNOSTICS
+     *==============================================*/
+
+    @Override
+    public List<RoomUsage> getRoomUsage(Date from, Date to, RoomUsage.Period period) {
+        return list("getRoomUsage", args("from", from.toString(), "to", to.toString(), "period", period.name()),
+                ModelJson::roomUsage);
+    }
+
+    @Override
+    public int rebuildRoomUsage() {
+        return count("rebuildRoomUsage", args());
+    }
+
+    @Override
+    public List<OperationMetrics.Stats> getOperationStats() {
+        return list("getOperationStats", args(), ModelJson::operationStats);
+    }
+
+    @Override
+    public List<QueryStatsInterceptor.Stats> getStatementStats() {
+        return list("getStatementStats", args(), ModelJson::statementStats);
+    }
+
+    @Override
+    public String getPoolSummary() {
+        try {
+            Object result = call("getPoolSummary", args());
+            return result == null ? null : result.toString();
+        } catch (CallFailedException e) {
+            return failed("getPoolSummary", e, null);
+        }
+    }
+
+    @Override
+    public void resetOperationStats() {
+        bool("resetOperationStats", args());
+    }
+
+    /*==============================================*
+     * CHANGE EVENTS
+     *==============================================*/
+
+    @Override
+    public synchronized void subscribeChanges(ChangeEventBus.Listener listener) {
+        changeListeners.add(listener);
+        if (eventThread == null) {
+            eventThread = new Thread(this::readEvents, "booking-server-events");
+            eventThread.setDaemon(true);
+            eventThread.start();
+        }
+    }
+
+    @Override
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    @Override
+    public boolean isChangePushComplete() {
+        return true; // The server also watches the change log for writes that bypass it
+    }
+
+    // Keeps one event stream open for the life of the client, reconnecting with a growing delay.
+    private void readEvents() {
+        long delay = 1000;
+        while (true) {
+            if (!sessionToken.isEmpty()) {
+                if (streamEvents()) delay = 1000;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+            delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+        }
+    }
+
+    /**
+     * @return true if the stream was open before it ended
+     */
+    private boolean streamEvents() {
+        HttpRequest request = HttpRequest.newBuilder(BookingServer.eventsUri(serverUrl))
+                .header(BookingServer.SESSION_HEADER, sessionToken)
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        String token = sessionToken;
+        boolean opened = false;
+        try {
+            HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() == 401) {
+                    sessionExpired(token);
+                    return false;
+                }
+                if (response.statusCode() != 200) {
+                    System.err.println("Booking server events refused: HTTP " + response.statusCode());
+                    return false;
+                }
+                opened = true;
+                // Catch up on anything missed while the stream was down
+                notifyChanged(ChangeEventBus.BOOKINGS);
+                notifyChanged(ChangeEventBus.ROOMS);
+                String event = null;
+                for (Iterator<String> it = lines.iterator(); it.hasNext(); ) {
+                    String line = it.next();
+                    if (line.startsWith("event:")) {
+                        event = line.substring("event:".length()).trim();
+                    } else if (line.isEmpty() && event != null) {
+                        notifyChanged(event);
+                        event = null;
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Booking server events disconnected: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return opened;
+    }
+
+    private void notifyChanged(String topic) {
+        for (ChangeEventBus.Listener listener : changeListeners) {
+            listener.changed(topic);
+        }
+    }
+
+    /*==============================================*
+     * CALLS
+     *==============================================*/
+
+    private Object call(String operation, Map<String, Object> args) throws CallFailedException {
+        if (!breaker.allowRequest()) throw new CallFailedException("Booking server unreachable; not trying until it answers again");
+        return send(operation, args);
+    }
+
+    // One request, around the breaker; a response of any kind means the server is reachable.
+    private Object send(String operation, Map<String, Object> args) throws CallFailedException {
+        String token = sessionToken;
+        HttpRequest request = HttpRequest.newBuilder(BookingServer.apiUri(serverUrl, operation))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .header(BookingServer.SESSION_HEADER, token)
+                .POST(HttpRequest.BodyPublishers.ofString(Json.write(args), StandardCharsets.UTF_8))
+                .build();
+        try {
+            HttpResponse<String> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                breaker.recordFailure();
+                throw e;
+            }
+            breaker.recordSuccess();
+            Map<?, ?> body = (Map<?, ?>) Json.parse(response.body());
+            if (response.statusCode() == 401) sessionExpired(token);
+            if (response.statusCode() != 200) {
+                throw new CallFailedException("HTTP " + response.statusCode() + ": " + body.get("error"));
+            }
+            return body.get("result");
+        } catch (IOException | IllegalArgumentException | ClassCastException e) {
+            throw new CallFailedException(e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallFailedException("Interrupted");
+        }
+    }
+
+    private boolean bool(String operation, Map<String, Object> args) {
+        try {
+            return Boolean.TRUE.equals(call(operation, args));
+        } catch (CallFailedException e) {
+            return failed(operation, e, false);
+        }
+    }
+
+    private int count(String operation, Map<String, Object> args) {
+        try {
+            return ((Number) call(operation, args)).intValue();
+        } catch (CallFailedException e) {
+            return failed(operation, e, -1);
+        }
+    }
+
+    private <T> List<T> list(String operation, Map<String, Object> args, java.util.function.Function<Object, T> fromJson) {
+        try {
+            return ModelJson.fromList(call(operation, args), fromJson);
+        } catch (CallFailedException e) {
+            return failed(operation, e, new ArrayList<>());
+        }
+    }
+
+    private static <T> T failed(String operation, CallFailedException e, T fallback) {
+        System.err.println("Booking server call " + operation + " failed: " + e.getMessage());
+        return fallback;
+    }
+
+    private static Map<String, Object> args(Object... keysAndValues) {
+        Map<String, Object> args = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            args.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return args;
+    }
+}
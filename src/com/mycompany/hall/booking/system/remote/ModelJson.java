@@ -0,0 +1,263 @@
+// ModelJson.java
+// Converts the model classes to and from the maps Json reads and writes. Passwords are never
+// written: the server has no reason to send one back to a client.
+package com.mycompany.hall.booking.system.remote;
+
+import com.mycompany.hall.booking.system.Booking;
+import com.mycompany.hall.booking.system.BookingChanges;
+import com.mycompany.hall.booking.system.BookingResult;
+import com.mycompany.hall.booking.system.OperationMetrics;
+import com.mycompany.hall.booking.system.QueryStatsInterceptor;
+import com.mycompany.hall.booking.system.Room;
+import com.mycompany.hall.booking.system.RoomUsage;
+import com.mycompany.hall.booking.system.User;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+final class ModelJson {
+
+    private ModelJson() {
+    }
+
+    static Map<String, Object> room(Room room) {
+        if (room == null) return null;
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", room.getId());
+        map.put("name", room.getName());
+        map.put("capacity", room.getCapacity());
+        return map;
+    }
+
+    static Room room(Object json) {
+        if (json == null) return null;
+        Map<?, ?> map = (Map<?, ?>) json;
+        return new Room(intValue(map, "id"), string(map, "name"), intValue(map, "capacity"));
+    }
+
+    static Map<String, Object> user(User user) {
+        if (user == null) return null;
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", user.getId());
+        map.put("name", user.getName());
+        map.put("email", user.getEmail());
+        map.put("role", user.getRole());
+        return map;
+    }
+
+    static User user(Object json) {
+        if (json == null) return null;
+        Map<?, ?> map = (Map<?, ?>) json;
+        return new User(intValue(map, "id"), string(map, "name"), string(map, "email"), string(map, "password"), string(map, "role"));
+    }
+
+    static Map<String, Object> booking(Booking booking) {
+        if (booking == null) return null;
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", booking.getId());
+        map.put("userId", booking.getUserId());
+        map.put("roomId", booking.getRoomId());
+        map.put("date", booking.getDate() == null ? null : booking.getDate().toString());
+        map.put("startTime", booking.getStartTime() == null ? null : booking.getStartTime().toString());
+        map.put("endTime", booking.getEndTime() == null ? null : booking.getEndTime().toString());
+        // A preview stays a preview on the client; the full text is fetched on demand there too.
+        map.put("purpose", booking.getPurpose());
+        map.put("purposeTruncated", booking.isPurposeTruncated());
+        map.put("status", booking.getStatus());
+        map.put("roomName", booking.getRoomName());
+        map.put("userName", booking.getUserName());
+        map.put("userEmail", booking.getUserEmail());
+        return map;
+    }
+
+    static Booking booking(Object json) {
+        if (json == null) return null;
+        Map<?, ?> map = (Map<?, ?>) json;
+        Booking booking = new Booking();
+        booking.setId(intValue(map, "id"));
+        booking.setUserId(intValue(map, "userId"));
+        booking.setRoomId(intValue(map, "roomId"));
+        booking.setDate(date(string(map, "date")));
+        booking.setStartTime(time(string(map, "startTime")));
+        booking.setEndTime(time(string(map, "endTime")));
+        booking.setPurposePreview(string(map, "purpose"), Boolean.TRUE.equals(map.get("purposeTruncated")));
+        booking.setStatus(string(map, "status"));
+        booking.setRoomName(string(map, "roomName"));
+        booking.setUserName(string(map, "userName"));
+        booking.setUserEmail(string(map, "userEmail"));
+        return booking;
+    }
+
+    static Map<String, Object> bookingResult(BookingResult result) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("status", result.getStatus().name());
+        map.put("bookingId", result.getBookingId());
+        map.put("conflictingIds", result.getConflictingIds());
+        map.put("errorMessage", result.getErrorMessage());
+        return map;
+    }
+
+    static BookingResult bookingResult(Object json) {
+        Map<?, ?> map = (Map<?, ?>) json;
+        switch (BookingResult.Status.valueOf(string(map, "status"))) {
+            case CREATED: return BookingResult.created(intValue(map, "bookingId"));
+            case CONFLICT: return BookingResult.conflict(intList(map.get("conflictingIds")));
+            default: return BookingResult.error(string(map, "errorMessage"));
+        }
+    }
+
+    static Map<String, Object> bookingChanges(BookingChanges changes) {
+        if (changes == null) return null;
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("fromVersion", changes.getFromVersion());
+        map.put("toVersion", changes.getToVersion());
+        map.put("upserted", list(changes.getUpserted(), ModelJson::booking));
+        map.put("insertedIds", changes.getInsertedIds());
+        map.put("deletedIds", changes.getDeletedIds());
+        map.put("reloadRequired", changes.isReloadRequired());
+        return map;
+    }
+
+    static BookingChanges bookingChanges(Object json) {
+        if (json == null) return null;
+        Map<?, ?> map = (Map<?, ?>) json;
+        if (bool(map, "reloadRequired")) {
+            return BookingChanges.reloadRequired(longValue(map, "fromVersion"), longValue(map, "toVersion"));
+        }
+        return new BookingChanges(longValue(map, "fromVersion"), longValue(map, "toVersion"),
+                fromList(map.get("upserted"), ModelJson::booking),
+                intList(map.get("insertedIds")), intList(map.get("deletedIds")));
+    }
+
+    static Map<String, Object> roomUsage(RoomUsage usage) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("roomId", usage.getRoomId());
+        map.put("roomName", usage.getRoomName());
+        map.put("period", usage.getPeriod());
+        map.put("pendingCount", usage.getPendingCount());
+        map.put("approvedCount", usage.getApprovedCount());
+        map.put("rejectedCount", usage.getRejectedCount());
+        map.put("requestedMinutes", usage.getRequestedMinutes());
+        map.put("approvedMinutes", usage.getApprovedMinutes());
+        return map;
+    }
+
+    static RoomUsage roomUsage(Object json) {
+        Map<?, ?> map = (Map<?, ?>) json;
+        RoomUsage usage = new RoomUsage();
+        usage.setRoomId(intValue(map, "roomId"));
+        usage.setRoomName(string(map, "roomName"));
+        usage.setPeriod(string(map, "period"));
+        usage.setPendingCount(intValue(map, "pendingCount"));
+        usage.setApprovedCount(intValue(map, "approvedCount"));
+        usage.setRejectedCount(intValue(map, "rejectedCount"));
+        usage.setRequestedMinutes(longValue(map, "requestedMinutes"));
+        usage.setApprovedMinutes(longValue(map, "approvedMinutes"));
+        return usage;
+    }
+
+    static Map<String, Object> operationStats(OperationMetrics.Stats stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("operation", stats.getOperation());
+        map.put("calls", stats.getCalls());
+        map.put("errors", stats.getErrors());
+        map.put("p50Millis", stats.getP50Millis());
+        map.put("p99Millis", stats.getP99Millis());
+        map.put("maxMillis", stats.getMaxMillis());
+        map.put("averagePoolWaitMillis", stats.getAveragePoolWaitMillis());
+        return map;
+    }
+
+    static OperationMetrics.Stats operationStats(Object json) {
+        Map<?, ?> map = (Map<?, ?>) json;
+        return new OperationMetrics.Stats(string(map, "operation"), longValue(map, "calls"), longValue(map, "errors"),
+                doubleValue(map, "p50Millis"), doubleValue(map, "p99Millis"), doubleValue(map, "maxMillis"),
+                doubleValue(map, "averagePoolWaitMillis"));
+    }
+
+    static Map<String, Object> statementStats(QueryStatsInterceptor.Stats stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("fingerprint", stats.getFingerprint());
+        map.put("calls", stats.getCalls());
+        map.put("p50Millis", stats.getP50Millis());
+        map.put("p99Millis", stats.getP99Millis());
+        map.put("maxMillis", stats.getMaxMillis());
+        map.put("totalMillis", stats.getTotalMillis());
+        return map;
+    }
+
+    static QueryStatsInterceptor.Stats statementStats(Object json) {
+        Map<?, ?> map = (Map<?, ?>) json;
+        return new QueryStatsInterceptor.Stats(string(map, "fingerprint"), longValue(map, "calls"),
+                doubleValue(map, "p50Millis"), doubleValue(map, "p99Millis"), doubleValue(map, "maxMillis"),
+                doubleValue(map, "totalMillis"));
+    }
+
+    static <T> List<Object> list(List<T> items, Function<T, Object> toJson) {
+        List<Object> list = new ArrayList<>(items.size());
+        for (T item : items) {
+            list.add(toJson.apply(item));
+        }
+        return list;
+    }
+
+    static <T> ArrayList<T> fromList(Object json, Function<Object, T> fromJson) {
+        ArrayList<T> items = new ArrayList<>();
+        if (json == null) return items;
+        for (Object item : (List<?>) json) {
+            items.add(fromJson.apply(item));
+        }
+        return items;
+    }
+
+    static ArrayList<Integer> intList(Object json) {
+        return fromList(json, value -> ((Number) value).intValue());
+    }
+
+    static int[] intArray(Object json) {
+        List<?> list = (List<?>) json;
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ((Number) list.get(i)).intValue();
+        }
+        return array;
+    }
+
+    static int intValue(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    static long longValue(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    static double doubleValue(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+
+    // Missing counts as false, so older clients that do not send the flag get the default.
+    static boolean bool(Map<?, ?> map, String key) {
+        return Boolean.TRUE.equals(map.get(key));
+    }
+
+    static String string(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value == null ? null : value.toString();
+    }
+
+    static Date date(String value) {
+        return value == null ? null : Date.valueOf(value);
+    }
+
+    static Time time(String value) {
+        return value == null ? null : Time.valueOf(value);
+    }
+}
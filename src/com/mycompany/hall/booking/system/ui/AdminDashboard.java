@@ -1,25 +1,34 @@
 package com.mycompany.hall.booking.system.ui;
 
 import com.mycompany.hall.booking.system.Booking;
-import com.mycompany.hall.booking.system.DatabaseManager;
+import com.mycompany.hall.booking.system.BookingChanges;
+import com.mycompany.hall.booking.system.BookingExporter;
+import com.mycompany.hall.booking.system.DataAccess;
 import com.mycompany.hall.booking.system.Room;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import java.awt.*;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
 
-public class AdminDashboard extends JFrame {
+public final class AdminDashboard extends JFrame {
 
     private JTable roomsTable;
     private JTable pendingBookingsTable;
     private JTable allBookingsTable;
-    private volatile boolean isRunning = true; // Flag to control the auto-refresh thread
+    private volatile long changeVersion = -1; // Last booking change-log version applied to the tables (-1 until loaded)
+
+    // The "All bookings" table keeps at most this many rows in memory
+    private static final int ALL_BOOKINGS_PAGE_SIZE = 200;
+    private static final int ALL_BOOKINGS_CACHED_PAGES = 10;
+
+    // Columns of the pending requests model used by code rather than only displayed
+    private static final int PENDING_DATE_COLUMN = 4;
+    private static final int PENDING_ROOM_ID_COLUMN = 7;
 
     public AdminDashboard() {
         setTitle("لوحة تحكم المسؤول - إدارة النظام");
@@ -27,14 +36,6 @@ public class AdminDashboard extends JFrame {
         setSize(900, 700);
         setLocationRelativeTo(null);
 
-        // listener to stop the background thread when the window is closed
-        addWindowListener(new java.awt.event.WindowAdapter() {
-            @Override
-            public void windowClosing(java.awt.event.WindowEvent windowEvent) {
-                isRunning = false; // Signal the refresh thread to terminate
-            }
-        });
-
         // Main Tabbed Pane for organizing admin tasks
         JTabbedPane tabbedPane = new JTabbedPane();
         tabbedPane.setFont(new Font("Segoe UI", Font.PLAIN, 14));
@@ -42,43 +43,36 @@ public class AdminDashboard extends JFrame {
         tabbedPane.addTab("إدارة القاعات", createManageRoomsPanel());
         tabbedPane.addTab("مراجعة الطلبات المعلقة", createReviewBookingsPanel());
         tabbedPane.addTab("عرض كل الحجوزات", createAllBookingsPanel());
+        tabbedPane.addTab("تقارير الاستخدام", new RoomUsagePanel());
+        tabbedPane.addTab("التشخيص", new DiagnosticsPanel());
 
         add(tabbedPane);
+        add(new ConnectionStatusBar(), BorderLayout.SOUTH);
+        LoginView.bindSession(this);
 
-        // Load initial data for all tables
-        refreshAdminRoomsTable();
-        refreshPendingBookingsTable();
-        refreshAllBookingsTable();
+        // Load initial data for all tables; later refreshes only fetch what changed since this version
+        AsyncDatabase.load(loadKey("changeVersion"), () -> DataAccess.get().getCurrentChangeVersion(), version -> {
+            changeVersion = version;
+            refreshAdminRoomsTable();
+            refreshPendingBookingsTable();
+            refreshAllBookingsTable();
+        });
         
-        // Start the background thread for auto-refreshing
-        startAutoRefresh();
-    }
-    
-    /**
-     * This method starts a background thread that refreshes the list
-     * of pending bookings without freezing the user interface.
-     */
-    private void startAutoRefresh() {
-        Thread refreshThread = new Thread(() -> {
-            while (isRunning) {
-                try {
-                    Thread.sleep(30000); // Wait for 30 seconds
-                    
-                    // GUI updates must be done on the Event Dispatch Thread (EDT)
-                    SwingUtilities.invokeLater(() -> {
-                        System.out.println("Auto-refreshing pending bookings...");
-                        refreshPendingBookingsTable();
-                    });
-                } catch (InterruptedException e) {
-                    System.out.println("Auto-refresh thread was interrupted.");
-                }
+        // Keep the tables current: the server (or this JVM) signals changes, the scheduler fetches them
+        BookingChangeFeed.subscribeRooms(this, this::refreshAdminRoomsTable);
+        BookingChangeFeed.subscribe(this, new BookingChangeFeed.Listener() {
+            @Override
+            public long getChangeVersion() {
+                return changeVersion;
+            }
+
+            @Override
+            public void applyChanges(BookingChanges changes) {
+                patchBookingTables(changes);
             }
-            System.out.println("Auto-refresh thread has stopped.");
         });
-        refreshThread.setDaemon(true); // Allows the app to close even if this thread is running
-        refreshThread.start();
     }
-
+    
     private JPanel createManageRoomsPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -120,11 +114,16 @@ public class AdminDashboard extends JFrame {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
         
-        String[] columnNames = {"ID الحجز", "ID المستخدم", "ID القاعة", "التاريخ", "الغرض", "الحالة"};
+        // The last column holds the room ID for the bulk actions; it is hidden from the view
+        String[] columnNames = {"ID الحجز", "المستخدم", "البريد الإلكتروني", "القاعة", "التاريخ", "الغرض", "الحالة", "ID القاعة"};
         DefaultTableModel model = new DefaultTableModel(columnNames, 0) {
              public boolean isCellEditable(int row, int column) { return false; }
         };
         pendingBookingsTable = new JTable(model);
+        pendingBookingsTable.removeColumn(pendingBookingsTable.getColumnModel().getColumn(PENDING_ROOM_ID_COLUMN));
+        // Several requests can be selected and decided in one go
+        pendingBookingsTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        PurposeDetails.install(pendingBookingsTable); // Double-click a request to read its full purpose
         panel.add(new JScrollPane(pendingBookingsTable), BorderLayout.CENTER);
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
@@ -132,9 +131,12 @@ public class AdminDashboard extends JFrame {
         approveButton.addActionListener(e -> updateBookingStatus("approved"));
         JButton rejectButton = new JButton("رفض");
         rejectButton.addActionListener(e -> updateBookingStatus("rejected"));
+        JButton rejectByRoomButton = new JButton("رفض كل طلبات قاعة في يوم...");
+        rejectByRoomButton.addActionListener(e -> rejectPendingForRoomAndDate());
 
         buttonPanel.add(approveButton);
         buttonPanel.add(rejectButton);
+        buttonPanel.add(rejectByRoomButton);
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
         return panel;
@@ -144,15 +146,17 @@ public class AdminDashboard extends JFrame {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
         
-        String[] columnNames = {"ID الحجز", "ID المستخدم", "ID القاعة", "التاريخ", "الغرض", "الحالة"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0) {
-             public boolean isCellEditable(int row, int column) { return false; }
-        };
-        allBookingsTable = new JTable(model);
+        // Rows are fetched page by page as the table is scrolled
+        allBookingsTable = new JTable(new BookingsPageTableModel(ALL_BOOKINGS_PAGE_SIZE, ALL_BOOKINGS_CACHED_PAGES));
+        PurposeDetails.install(allBookingsTable);
         panel.add(new JScrollPane(allBookingsTable), BorderLayout.CENTER);
 
         // Button for exporting the report
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JCheckBox archiveBox = new JCheckBox("عرض الحجوزات المؤرشفة");
+        archiveBox.addActionListener(e ->
+                ((BookingsPageTableModel) allBookingsTable.getModel()).setIncludeArchive(archiveBox.isSelected()));
+        buttonPanel.add(archiveBox);
         JButton exportButton = new JButton("تصدير تقرير");
         exportButton.addActionListener(e -> exportReport());
         buttonPanel.add(exportButton);
@@ -165,108 +169,210 @@ public class AdminDashboard extends JFrame {
         System.out.println("refreshing rooms...");
         if (roomsTable == null) return; // Defensive check in case the table isn't initialized
 
-        DefaultTableModel model = (DefaultTableModel) roomsTable.getModel();
-        model.setRowCount(0); // Clear current rows
-
-        ArrayList<Room> rooms = DatabaseManager.getAvailableRooms(); // Fetch rooms from DB
-        for (Room room : rooms) {
-            model.addRow(new Object[] {
-                room.getId(),
-                room.getName(),
-                room.getCapacity()
-            });
-        }
+        // Fetch rooms from DB in the background
+        AsyncDatabase.load("rooms", () -> DataAccess.get().getAvailableRooms(), rooms -> {
+            DefaultTableModel model = (DefaultTableModel) roomsTable.getModel();
+            model.setRowCount(0); // Clear current rows
+            for (Room room : rooms) {
+                model.addRow(new Object[] {
+                    room.getId(),
+                    room.getName(),
+                    room.getCapacity()
+                });
+            }
+        });
     }
 
 
     private void refreshPendingBookingsTable() {
-        DefaultTableModel model = (DefaultTableModel) pendingBookingsTable.getModel();
-        int selectedRow = pendingBookingsTable.getSelectedRow();
-        model.setRowCount(0);
-        ArrayList<Booking> bookings = DatabaseManager.getPendingBookings();
-        for (Booking booking : bookings) {
-            model.addRow(new Object[]{booking.getId(), booking.getUserId(), booking.getRoomId(), booking.getDate(), booking.getPurpose(), booking.getStatus()});
+        AsyncDatabase.load(loadKey("pendingBookings"), () -> DataAccess.get().getPendingBookings(), bookings -> {
+            DefaultTableModel model = (DefaultTableModel) pendingBookingsTable.getModel();
+            int selectedRow = pendingBookingsTable.getSelectedRow();
+            model.setRowCount(0);
+            for (Booking booking : bookings) {
+                model.addRow(toPendingRow(booking));
+            }
+            if (selectedRow >= 0 && selectedRow < pendingBookingsTable.getRowCount()) {
+                pendingBookingsTable.setRowSelectionInterval(selectedRow, selectedRow);
+            }
+        });
+    }
+
+    /**
+     * Patches both booking tables with the bookings changed since the last refresh
+     * instead of reloading them.
+     */
+    private void patchBookingTables(BookingChanges changes) {
+        if (changes == null) return; // Database unreachable; try again on the next refresh
+        if (changes.getToVersion() <= changeVersion) return; // Nothing new, or already applied
+        changeVersion = changes.getToVersion();
+        if (changes.isReloadRequired()) {
+            // The changes we missed were pruned from the log; start over from the current version
+            refreshPendingBookingsTable();
+            refreshAllBookingsTable();
+            return;
         }
-        if (selectedRow >= 0 && selectedRow < pendingBookingsTable.getRowCount()) {
-            pendingBookingsTable.setRowSelectionInterval(selectedRow, selectedRow);
+
+        DefaultTableModel pendingModel = (DefaultTableModel) pendingBookingsTable.getModel();
+        for (int bookingId : changes.getDeletedIds()) {
+            TableRows.removeById(pendingModel, bookingId);
         }
-        // refresh the "All Bookings" view as statuses might change.
-        refreshAllBookingsTable(); 
+        for (Booking booking : changes.getUpserted()) {
+            if ("pending".equalsIgnoreCase(booking.getStatus())) {
+                TableRows.upsert(pendingModel, toPendingRow(booking), PENDING_DATE_COLUMN, false);
+            } else {
+                TableRows.removeById(pendingModel, booking.getId());
+            }
+        }
+
+        ((BookingsPageTableModel) allBookingsTable.getModel()).applyChanges(changes);
+    }
+
+    // Keys requests that belong to this window, so two open dashboards never share results.
+    private String loadKey(String dataset) {
+        return "admin@" + System.identityHashCode(this) + "." + dataset;
+    }
+
+    private Object[] toPendingRow(Booking booking) {
+        return new Object[]{booking.getId(), booking.getUserName(), booking.getUserEmail(), booking.getRoomName(),
+                booking.getDate(), booking.getPurposePreview(), booking.getStatus(), booking.getRoomId()};
     }
     
     private void refreshAllBookingsTable() {
         if (allBookingsTable == null) return; // Defensive check
 
-        DefaultTableModel model = (DefaultTableModel) allBookingsTable.getModel();
-        model.setRowCount(0); // Clear current rows
-
-        ArrayList<Booking> bookings = DatabaseManager.getAllBookings(); // Fetch all bookings
-        for (Booking booking : bookings) {
-            model.addRow(new Object[]{
-                booking.getId(),
-                booking.getUserId(),
-                booking.getRoomId(),
-                booking.getDate(),
-                booking.getPurpose(),
-                booking.getStatus()
-            });
-        }
+        // Reloads only the first page; further pages are fetched while scrolling
+        ((BookingsPageTableModel) allBookingsTable.getModel()).refresh();
     }
 
     
     /**
-     * method that saves the content of the "All Bookings" table to a text file.
+     * Exports every booking (not only the rows loaded in the table) to a CSV or JSON Lines
+     * file, optionally gzipped. The rows are streamed from the database in the background.
      */
     private void exportReport() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("حفظ التقرير");
-        fileChooser.setSelectedFile(new File("bookings_report.txt"));
-
-        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            File fileToSave = fileChooser.getSelectedFile();
-            try (FileWriter fw = new FileWriter(fileToSave);
-                 BufferedWriter bw = new BufferedWriter(fw)) {
-                
-                bw.write("--- تقرير الحجوزات ---\n");
-                DefaultTableModel model = (DefaultTableModel) allBookingsTable.getModel();
-                // Write header
-                for (int i = 0; i < model.getColumnCount(); i++) {
-                    bw.write(model.getColumnName(i) + "\t\t");
-                }
-                bw.newLine();
-                bw.write("------------------------------------------------------------------------------------\n");
+        fileChooser.setSelectedFile(new File("bookings_report.csv"));
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV (*.csv, *.csv.gz)", "csv", "gz"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON Lines (*.jsonl, *.jsonl.gz)", "jsonl", "gz"));
+
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        // The format follows the file name: .jsonl for JSON Lines, anything else CSV; a trailing .gz compresses it
+        File fileToSave = fileChooser.getSelectedFile();
+        String name = fileToSave.getName().toLowerCase();
+        boolean gzip = name.endsWith(".gz");
+        if (gzip) name = name.substring(0, name.length() - 3);
+        BookingExporter.Format format = name.endsWith(".jsonl") ? BookingExporter.Format.JSON_LINES : BookingExporter.Format.CSV;
+        if (!name.endsWith(".csv") && !name.endsWith(".jsonl")) {
+            fileToSave = new File(fileToSave.getParentFile(), fileToSave.getName() + ".csv");
+        }
+        File target = fileToSave;
 
-                // Write data
-                for (int i = 0; i < model.getRowCount(); i++) {
-                    for (int j = 0; j < model.getColumnCount(); j++) {
-                        bw.write(model.getValueAt(i, j).toString() + "\t\t");
+        ProgressMonitor monitor = new ProgressMonitor(this, "جاري تصدير الحجوزات...", null, 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+
+        SwingWorker<Long, Integer> worker = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return DataAccess.get().exportBookings(target.toPath(), format, gzip, new BookingExporter.Listener() {
+                    @Override
+                    public void progress(long rowsWritten, long totalRows) {
+                        publish(totalRows == 0 ? 100 : (int) Math.min(100, rowsWritten * 100 / totalRows));
                     }
-                    bw.newLine();
-                }
-                
-                bw.write("--- نهاية التقرير ---\n");
-                JOptionPane.showMessageDialog(this, "تم تصدير التقرير بنجاح إلى:\n" + fileToSave.getAbsolutePath(), "نجاح", JOptionPane.INFORMATION_MESSAGE);
 
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "خطأ أثناء حفظ الملف: " + ex.getMessage(), "خطأ", JOptionPane.ERROR_MESSAGE);
+                    @Override
+                    public boolean isCancelled() {
+                        return monitor.isCanceled();
+                    }
+                });
             }
-        }
+
+            @Override
+            protected void process(java.util.List<Integer> percents) {
+                monitor.setProgress(percents.get(percents.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                if (monitor.isCanceled()) {
+                    target.delete(); // Don't leave a half-written report behind
+                    return;
+                }
+                try {
+                    long rows = get();
+                    JOptionPane.showMessageDialog(AdminDashboard.this, "تم تصدير " + rows + " حجز بنجاح إلى:\n" + target.getAbsolutePath(), "نجاح", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(AdminDashboard.this, "خطأ أثناء حفظ الملف: " + cause.getMessage(), "خطأ", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
     }
     
     private void updateBookingStatus(String status) {
-        int selectedRow = pendingBookingsTable.getSelectedRow();
-        if (selectedRow == -1) {
+        int[] selectedRows = pendingBookingsTable.getSelectedRows();
+        if (selectedRows.length == 0) {
             JOptionPane.showMessageDialog(this, "الرجاء اختيار طلب من القائمة أولاً.", "خطأ", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        int bookingId = (int) pendingBookingsTable.getValueAt(selectedRow, 0);
-        if (DatabaseManager.updateBookingStatus(bookingId, status)) {
-            JOptionPane.showMessageDialog(this, "تم تحديث حالة الحجز بنجاح.");
-            refreshPendingBookingsTable();
-        } else {
+        int[] bookingIds = new int[selectedRows.length];
+        for (int i = 0; i < selectedRows.length; i++) {
+            bookingIds[i] = (int) pendingBookingsTable.getValueAt(selectedRows[i], 0);
+        }
+        AsyncDatabase.run(() -> DataAccess.get().updateBookingStatuses(bookingIds, status), this::showBulkStatusResult);
+    }
+
+    private void rejectPendingForRoomAndDate() {
+        JTextField roomIdField = new JTextField();
+        JTextField dateField = new JTextField();
+        // Start from the selected request, if any
+        int selectedRow = pendingBookingsTable.getSelectedRow();
+        if (selectedRow != -1) {
+            TableModel model = pendingBookingsTable.getModel();
+            roomIdField.setText(String.valueOf(model.getValueAt(selectedRow, PENDING_ROOM_ID_COLUMN)));
+            dateField.setText(String.valueOf(model.getValueAt(selectedRow, PENDING_DATE_COLUMN)));
+        }
+
+        JComponent[] inputs = new JComponent[] {
+            new JLabel("ID القاعة:"),
+            roomIdField,
+            new JLabel("التاريخ (YYYY-MM-DD):"),
+            dateField
+        };
+
+        int result = JOptionPane.showConfirmDialog(this, inputs, "رفض كل الطلبات المعلقة لقاعة في يوم", JOptionPane.OK_CANCEL_OPTION);
+        if (result != JOptionPane.OK_OPTION) return;
+
+        int roomId;
+        java.sql.Date date;
+        try {
+            roomId = Integer.parseInt(roomIdField.getText().trim());
+            date = java.sql.Date.valueOf(dateField.getText().trim());
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "الرجاء إدخال رقم قاعة وتاريخ صحيحين.", "خطأ", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        AsyncDatabase.run(() -> DataAccess.get().updatePendingBookingStatuses(roomId, date, "rejected"), this::showBulkStatusResult);
+    }
+
+    // One message and one table refresh per batch, however many bookings it touched
+    private void showBulkStatusResult(int updated) {
+        if (updated < 0) {
             JOptionPane.showMessageDialog(this, "فشل تحديث حالة الحجز.", "خطأ", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (updated == 0) {
+            JOptionPane.showMessageDialog(this, "لا توجد طلبات معلقة مطابقة.");
+        } else {
+            JOptionPane.showMessageDialog(this, "تم تحديث حالة " + updated + " حجز بنجاح.");
         }
+        BookingChangeFeed.refreshNow();
     }
     
     private void addRoom() {
@@ -295,12 +401,14 @@ public class AdminDashboard extends JFrame {
                 room.setName(name);
                 room.setCapacity(capacity);
 
-                if (DatabaseManager.addRoom(room)) {
-                    JOptionPane.showMessageDialog(this, "تمت إضافة القاعة بنجاح.");
-                    refreshAdminRoomsTable();
-                } else {
-                    JOptionPane.showMessageDialog(this, "فشل في إضافة القاعة.", "خطأ", JOptionPane.ERROR_MESSAGE);
-                }
+                AsyncDatabase.run(() -> DataAccess.get().addRoom(room), added -> {
+                    if (added) {
+                        JOptionPane.showMessageDialog(this, "تمت إضافة القاعة بنجاح.");
+                        refreshAdminRoomsTable();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "فشل في إضافة القاعة.", "خطأ", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "الرجاء إدخال بيانات صحيحة.", "خطأ", JOptionPane.ERROR_MESSAGE);
             }
@@ -335,12 +443,14 @@ public class AdminDashboard extends JFrame {
                 String name = nameField.getText().trim();
                 int capacity = Integer.parseInt(capacityField.getText().trim());
 
-                if (DatabaseManager.updateRoom(roomId, name, capacity)) {
-                    JOptionPane.showMessageDialog(this, "تم تعديل القاعة بنجاح.");
-                    refreshAdminRoomsTable();
-                } else {
-                    JOptionPane.showMessageDialog(this, "فشل في تعديل القاعة.", "خطأ", JOptionPane.ERROR_MESSAGE);
-                }
+                AsyncDatabase.run(() -> DataAccess.get().updateRoom(roomId, name, capacity), updated -> {
+                    if (updated) {
+                        JOptionPane.showMessageDialog(this, "تم تعديل القاعة بنجاح.");
+                        refreshAdminRoomsTable();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "فشل في تعديل القاعة.", "خطأ", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "الرجاء إدخال بيانات صحيحة.", "خطأ", JOptionPane.ERROR_MESSAGE);
             }
@@ -358,12 +468,14 @@ public class AdminDashboard extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "هل أنت متأكد أنك تريد حذف هذه القاعة؟", "تأكيد الحذف", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            if (DatabaseManager.deleteRoom(roomId)) {
-                JOptionPane.showMessageDialog(this, "تم حذف القاعة بنجاح.");
-                refreshAdminRoomsTable();
-            } else {
-                JOptionPane.showMessageDialog(this, "فشل في حذف القاعة.", "خطأ", JOptionPane.ERROR_MESSAGE);
-            }
+            AsyncDatabase.run(() -> DataAccess.get().deleteRoom(roomId), deleted -> {
+                if (deleted) {
+                    JOptionPane.showMessageDialog(this, "تم حذف القاعة بنجاح.");
+                    refreshAdminRoomsTable();
+                } else {
+                    JOptionPane.showMessageDialog(this, "فشل في حذف القاعة.", "خطأ", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -0,0 +1,116 @@
+// AsyncDatabase.java
+// Runs DatabaseManager calls on background (virtual) threads and hands the results
+// back to the Swing Event Dispatch Thread, so a slow query never freezes the UI.
+package com.mycompany.hall.booking.system.ui;
+
+import javax.swing.SwingUtilities;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public final class AsyncDatabase {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Reads currently running, by key; a second request for the same key joins the running one.
+    private static final Map<String, Load<?>> IN_FLIGHT = new ConcurrentHashMap<>();
+    // Newest result delivered per key, kept only while results for that key are still on their way;
+    // a later load always gets a newer ticket, so nothing older can be delivered after the entry goes.
+    private static final Map<String, Deliveries> DELIVERIES = new ConcurrentHashMap<>();
+    private static final AtomicLong TICKETS = new AtomicLong();
+
+    // Only changed inside DELIVERIES.compute
+    private static final class Deliveries {
+        long delivered;
+        int pending;
+    }
+
+    private static final class Load<T> {
+        final long ticket;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Load(long ticket) {
+            this.ticket = ticket;
+        }
+    }
+
+    private AsyncDatabase() {
+    }
+
+    /**
+     * Runs a read in the background and passes its result to {@code onResult} on the EDT.
+     * <p>
+     * Requests with the same key while one is still running share that query instead of
+     * starting another. A result is dropped if a newer result for the same key has already
+     * been delivered.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void load(String key, Supplier<T> query, Consumer<T> onResult) {
+        Load<T> created = new Load<>(TICKETS.incrementAndGet());
+        Load<T> load = (Load<T>) IN_FLIGHT.putIfAbsent(key, created);
+        if (load == null) {
+            load = created;
+            EXECUTOR.execute(() -> {
+                try {
+                    created.future.complete(query.get());
+                } catch (Throwable t) {
+                    created.future.completeExceptionally(t);
+                } finally {
+                    IN_FLIGHT.remove(key, created);
+                }
+            });
+        }
+
+        long ticket = load.ticket;
+        DELIVERIES.compute(key, (k, deliveries) -> {
+            if (deliveries == null) deliveries = new Deliveries();
+            deliveries.pending++;
+            return deliveries;
+        });
+        load.future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            boolean[] newest = new boolean[1];
+            DELIVERIES.compute(key, (k, deliveries) -> {
+                if (error == null && deliveries.delivered <= ticket) {
+                    deliveries.delivered = ticket;
+                    newest[0] = true;
+                }
+                return --deliveries.pending == 0 ? null : deliveries;
+            });
+            if (error != null) {
+                System.err.println("Background load '" + key + "' failed: " + error);
+                return;
+            }
+            if (!newest[0]) {
+                return; // A newer refresh already updated the view.
+            }
+            onResult.accept(result);
+        }));
+    }
+
+    /**
+     * Forgets the running read for {@code key}, so the next load starts a fresh query.
+     * Call after a write that makes the running query's result out of date.
+     */
+    public static void invalidate(String key) {
+        IN_FLIGHT.remove(key);
+    }
+
+    /**
+     * Runs a write (or any one-off call) in the background and passes its result to
+     * {@code onDone} on the EDT. Writes are never shared or dropped.
+     */
+    public static <T> void run(Supplier<T> operation, Consumer<T> onDone) {
+        CompletableFuture.supplyAsync(operation, EXECUTOR).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                System.err.println("Background operation failed: " + error);
+                return;
+            }
+            onDone.accept(result);
+        }));
+    }
+}
@@ -0,0 +1,133 @@
+// BookingChangeFeed.java
+// The "bookings" refresh dataset: one change-log query per refresh, shared by every open dashboard.
+// Refreshes are triggered by change notifications from DataAccess; the periodic poll is only a
+// safety net, and a slow one when notifications cover every client's writes.
+package com.mycompany.hall.booking.system.ui;
+
+import com.mycompany.hall.booking.system.BookingChanges;
+import com.mycompany.hall.booking.system.ChangeEventBus;
+import com.mycompany.hall.booking.system.CircuitBreaker;
+import com.mycompany.hall.booking.system.DataAccess;
+
+import javax.swing.SwingUtilities;
+import java.awt.Window;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public final class BookingChangeFeed {
+
+    public static final String DATASET = "bookings";
+    private static final long REFRESH_INTERVAL_MS = 30000;
+    private static final long PUSHED_REFRESH_INTERVAL_MS = 300000;
+
+    /**
+     * A view that patches itself from booking changes.
+     */
+    public interface Listener {
+        /**
+         * The change-log version the view is up to date with, or -1 while it is still loading.
+         */
+        long getChangeVersion();
+
+        /**
+         * Called on the EDT. Changes may start before the listener's own version; re-applying
+         * them is harmless because they carry the bookings' current rows.
+         */
+        void applyChanges(BookingChanges changes);
+    }
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final List<Runnable> ROOM_LISTENERS = new CopyOnWriteArrayList<>();
+
+    static {
+        long interval = DataAccess.get().isChangePushComplete() ? PUSHED_REFRESH_INTERVAL_MS : REFRESH_INTERVAL_MS;
+        RefreshScheduler.getInstance().register(DATASET, interval, BookingChangeFeed::poll);
+        DataAccess.get().subscribeChanges(BookingChangeFeed::changed);
+        // Whatever changed while the connection was down is fetched as soon as it is back
+        DataAccess.get().getCircuitBreaker().addListener(state -> {
+            if (state == CircuitBreaker.State.CLOSED) {
+                changed(ChangeEventBus.BOOKINGS);
+                changed(ChangeEventBus.ROOMS);
+            }
+        });
+    }
+
+    private BookingChangeFeed() {
+    }
+
+    /**
+     * Keeps the listener updated while the window is open.
+     */
+    public static void subscribe(Window window, Listener listener) {
+        LISTENERS.add(listener);
+        // The scheduler subscription ends by itself when the window closes
+        RefreshScheduler.getInstance().subscribe(DATASET, window);
+        window.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                LISTENERS.remove(listener);
+            }
+
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                LISTENERS.remove(listener);
+            }
+        });
+    }
+
+    /**
+     * Runs the refresh on the EDT whenever rooms are added, renamed or deleted, while the window is open.
+     */
+    public static void subscribeRooms(Window window, Runnable refresh) {
+        ROOM_LISTENERS.add(refresh);
+        window.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                ROOM_LISTENERS.remove(refresh);
+            }
+
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                ROOM_LISTENERS.remove(refresh);
+            }
+        });
+    }
+
+    /**
+     * Fetches changes now instead of waiting for the next interval; call after a local write.
+     */
+    public static void refreshNow() {
+        RefreshScheduler.getInstance().requestRefresh(DATASET);
+    }
+
+    // Called on whichever thread saw the change: hand the work to the scheduler or the EDT.
+    private static void changed(String topic) {
+        if (ChangeEventBus.BOOKINGS.equals(topic)) {
+            refreshNow();
+        } else if (ChangeEventBus.ROOMS.equals(topic)) {
+            SwingUtilities.invokeLater(() -> {
+                for (Runnable refresh : ROOM_LISTENERS) {
+                    refresh.run();
+                }
+            });
+        }
+    }
+
+    // Runs on the scheduler thread: a single query from the oldest listener's version.
+    private static void poll() {
+        long since = Long.MAX_VALUE;
+        for (Listener listener : LISTENERS) {
+            long version = listener.getChangeVersion();
+            if (version >= 0) since = Math.min(since, version);
+        }
+        if (since == Long.MAX_VALUE) return; // Nobody has finished loading yet
+
+        BookingChanges changes = DataAccess.get().getBookingChangesSince(since);
+        if (changes == null || changes.isEmpty()) return;
+        SwingUtilities.invokeLater(() -> {
+            for (Listener listener : LISTENERS) {
+                listener.applyChanges(changes);
+            }
+        });
+    }
+}
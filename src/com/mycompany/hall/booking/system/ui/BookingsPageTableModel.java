@@ -0,0 +1,345 @@
+// BookingsPageTableModel.java
+// A lazily loaded table model for the "All bookings" view. Rows are fetched page by page
+// with keyset pagination as the user scrolls, and only a bounded number of pages is kept in memory.
+package com.mycompany.hall.booking.system.ui;
+
+import com.mycompany.hall.booking.system.Booking;
+import com.mycompany.hall.booking.system.BookingChanges;
+import com.mycompany.hall.booking.system.DataAccess;
+
+import javax.swing.table.AbstractTableModel;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class BookingsPageTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"ID الحجز", "المستخدم", "البريد الإلكتروني", "القاعة", "التاريخ", "الغرض", "الحالة"};
+
+    private final int pageSize;
+
+    // Cached pages, least recently used first; older pages are dropped and re-fetched on demand.
+    private final LinkedHashMap<Integer, List<Booking>> pages;
+
+    // Keyset cursor (date, id of the last row) of each page discovered so far. Page p holds the rows
+    // after cursor p-1 up to and including cursor p, so inserts and deletes only change that page.
+    private final List<Date> cursorDates = new ArrayList<>();
+    private final List<Integer> cursorIds = new ArrayList<>();
+    // Row count of each page, cached or not, and the first row of each page (rebuilt when counts change)
+    private final List<Integer> pageCounts = new ArrayList<>();
+    private int[] pageStarts = new int[0];
+
+    // Whether archived bookings are listed too; see BookingArchiver
+    private boolean includeArchive;
+
+    private int knownRows;
+    private boolean exhausted;
+    private boolean loadingNextPage;
+
+    // Pages being fetched in the background; bumping the generation discards their results.
+    private final Set<Integer> loadingPages = new HashSet<>();
+    private int generation;
+
+    public BookingsPageTableModel(int pageSize, int maxCachedPages) {
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<Integer, List<Booking>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Booking>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Switches between live bookings only and live plus archived bookings, and reloads.
+     */
+    public void setIncludeArchive(boolean includeArchive) {
+        this.includeArchive = includeArchive;
+        refresh();
+    }
+
+    /**
+     * Drops everything and loads the first page again (in the background).
+     */
+    public void refresh() {
+        int expected = ++generation;
+        boolean archive = includeArchive;
+        AsyncDatabase.run(() -> DataAccess.get().getBookingsPage(null, 0, pageSize, archive), firstPage -> {
+            if (expected != generation) return; // A newer refresh is on its way
+            pages.clear();
+            cursorDates.clear();
+            cursorIds.clear();
+            pageCounts.clear();
+            loadingPages.clear();
+            knownRows = 0;
+            exhausted = false;
+            loadingNextPage = false;
+            appendPage(firstPage);
+            fireTableDataChanged();
+        });
+    }
+
+    /**
+     * Patches the page each changed booking belongs to, keeping the other pages and the
+     * scroll position. Deletes from pages that are not cached are picked up when the page
+     * is fetched again.
+     */
+    public void applyChanges(BookingChanges changes) {
+        for (int bookingId : changes.getDeletedIds()) {
+            removeCachedRow(bookingId);
+        }
+        Set<Integer> inserted = new HashSet<>(changes.getInsertedIds());
+        for (Booking changed : changes.getUpserted()) {
+            // Changes may be re-applied, so an insert that is already shown is just an update
+            if (!replaceCachedRow(changed) && inserted.contains(changed.getId())) {
+                insertRow(changed);
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return knownRows;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Booking booking = getBookingAt(row);
+        if (booking == null) return null;
+        switch (column) {
+            case 0: return booking.getId();
+            case 1: return booking.getUserName();
+            case 2: return booking.getUserEmail();
+            case 3: return booking.getRoomName();
+            case 4: return booking.getDate();
+            case 5: return booking.getPurposePreview();
+            case 6: return booking.getStatus();
+            default: return null;
+        }
+    }
+
+    /**
+     * Returns the booking shown at the given row. If its page was evicted this returns null
+     * and fetches the page in the background; the rows repaint once it arrives.
+     */
+    public Booking getBookingAt(int row) {
+        if (row < 0 || row >= knownRows) return null;
+        int pageIndex = pageOfRow(row);
+        List<Booking> page = pages.get(pageIndex);
+        if (page == null) {
+            fetchPage(pageIndex);
+            return null;
+        }
+        // Reaching the last known page pulls in the next one, so the table grows while scrolling.
+        if (pageIndex == lastPageIndex() && !exhausted && !loadingNextPage) {
+            loadNextPage();
+        }
+        int offset = row - pageStarts[pageIndex];
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    private void loadNextPage() {
+        if (exhausted || cursorDates.isEmpty()) return;
+        loadingNextPage = true;
+        int expected = generation;
+        int last = lastPageIndex();
+        Date afterDate = cursorDates.get(last);
+        int afterId = cursorIds.get(last);
+        boolean archive = includeArchive;
+        AsyncDatabase.run(() -> DataAccess.get().getBookingsPage(afterDate, afterId, pageSize, archive), page -> {
+            if (expected != generation) return;
+            loadingNextPage = false;
+            int firstNewRow = knownRows;
+            appendPage(page);
+            if (knownRows > firstNewRow) {
+                fireTableRowsInserted(firstNewRow, knownRows - 1);
+            }
+        });
+    }
+
+    private void appendPage(List<Booking> page) {
+        if (page.size() < pageSize) exhausted = true;
+        if (page.isEmpty()) return;
+        pages.put(cursorDates.size(), new ArrayList<>(page));
+        Booking last = page.get(page.size() - 1);
+        cursorDates.add(last.getDate());
+        cursorIds.add(last.getId());
+        pageCounts.add(page.size());
+        countsChanged();
+    }
+
+    /**
+     * Fetches an evicted page again: every row after the previous page's cursor up to and
+     * including this page's, which may now be more or fewer rows than when it was first loaded.
+     */
+    private void fetchPage(int pageIndex) {
+        if (!loadingPages.add(pageIndex)) return; // Already on its way
+        int expected = generation;
+        Date fromDate = pageIndex == 0 ? null : cursorDates.get(pageIndex - 1);
+        int fromId = pageIndex == 0 ? 0 : cursorIds.get(pageIndex - 1);
+        Date toDate = cursorDates.get(pageIndex);
+        int toId = cursorIds.get(pageIndex);
+        boolean archive = includeArchive;
+        AsyncDatabase.run(() -> readRange(fromDate, fromId, toDate, toId, archive), page -> {
+            if (expected != generation) return;
+            loadingPages.remove(pageIndex);
+            int oldCount = pageCounts.get(pageIndex);
+            if (page.isEmpty() && oldCount > 0) return; // Most likely a failed read; fetched again on the next repaint
+            pages.put(pageIndex, page);
+            if (page.size() == oldCount) {
+                int firstRow = pageStarts[pageIndex];
+                if (oldCount > 0) fireTableRowsUpdated(firstRow, firstRow + oldCount - 1);
+                return;
+            }
+            // Rows were added or removed in this page while it was not cached
+            pageCounts.set(pageIndex, page.size());
+            countsChanged();
+            fireTableDataChanged();
+        });
+    }
+
+    // Runs in the background: reads the rows between two cursors, as many pages as it takes.
+    private List<Booking> readRange(Date fromDate, int fromId, Date toDate, int toId, boolean archive) {
+        List<Booking> rows = new ArrayList<>();
+        Date afterDate = fromDate;
+        int afterId = fromId;
+        while (true) {
+            List<Booking> chunk = DataAccess.get().getBookingsPage(afterDate, afterId, pageSize, archive);
+            for (Booking booking : chunk) {
+                if (compareKeys(booking.getDate(), booking.getId(), toDate, toId) > 0) return rows;
+                rows.add(booking);
+            }
+            if (chunk.size() < pageSize) return rows;
+            Booking last = chunk.get(chunk.size() - 1);
+            afterDate = last.getDate();
+            afterId = last.getId();
+        }
+    }
+
+    // Patches a changed booking wherever it is cached; false if it is in no cached page.
+    private boolean replaceCachedRow(Booking changed) {
+        for (Map.Entry<Integer, List<Booking>> entry : pages.entrySet()) {
+            List<Booking> page = entry.getValue();
+            for (int i = 0; i < page.size(); i++) {
+                if (page.get(i).getId() == changed.getId()) {
+                    page.set(i, changed);
+                    int row = pageStarts[entry.getKey()] + i;
+                    fireTableRowsUpdated(row, row);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void removeCachedRow(int bookingId) {
+        for (Map.Entry<Integer, List<Booking>> entry : pages.entrySet()) {
+            List<Booking> page = entry.getValue();
+            for (int i = 0; i < page.size(); i++) {
+                if (page.get(i).getId() == bookingId) {
+                    int pageIndex = entry.getKey();
+                    int row = pageStarts[pageIndex] + i;
+                    page.remove(i);
+                    pageCounts.set(pageIndex, pageCounts.get(pageIndex) - 1);
+                    countsChanged();
+                    fireTableRowsDeleted(row, row);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Adds a new booking to the page whose key range holds it.
+    private void insertRow(Booking booking) {
+        int pageIndex = 0;
+        while (pageIndex < cursorDates.size()
+                && compareKeys(booking.getDate(), booking.getId(), cursorDates.get(pageIndex), cursorIds.get(pageIndex)) > 0) {
+            pageIndex++;
+        }
+        if (pageIndex == cursorDates.size()) {
+            // Past every loaded page: if more pages follow, it shows up when they are scrolled to
+            if (!exhausted) return;
+            if (pageIndex == 0) {
+                pages.put(0, new ArrayList<>());
+                pageCounts.add(0);
+            } else {
+                pageIndex--;
+            }
+            // The last page now ends with this booking
+            if (cursorDates.size() == pageIndex) {
+                cursorDates.add(booking.getDate());
+                cursorIds.add(booking.getId());
+            } else {
+                cursorDates.set(pageIndex, booking.getDate());
+                cursorIds.set(pageIndex, booking.getId());
+            }
+        }
+
+        int offset = pageCounts.get(pageIndex);
+        List<Booking> page = pages.get(pageIndex);
+        if (page != null) {
+            offset = 0;
+            while (offset < page.size() && compareKeys(page.get(offset).getDate(), page.get(offset).getId(),
+                    booking.getDate(), booking.getId()) < 0) {
+                offset++;
+            }
+            page.add(offset, booking);
+        }
+        // An uncached page gets the row counted now and its contents when it is fetched
+        pageCounts.set(pageIndex, pageCounts.get(pageIndex) + 1);
+        countsChanged();
+        int row = pageStarts[pageIndex] + offset;
+        fireTableRowsInserted(row, row);
+    }
+
+    private void countsChanged() {
+        pageStarts = new int[pageCounts.size()];
+        int rows = 0;
+        for (int i = 0; i < pageStarts.length; i++) {
+            pageStarts[i] = rows;
+            rows += pageCounts.get(i);
+        }
+        knownRows = rows;
+    }
+
+    // The last page starting at or before the row; pages emptied by deletes are skipped over.
+    private int pageOfRow(int row) {
+        int lo = 0;
+        int hi = pageStarts.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (pageStarts[mid] <= row) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    // Negative if the first booking is listed before the second (newest date first, then highest id).
+    private static int compareKeys(Date date, int id, Date otherDate, int otherId) {
+        int byDate = otherDate.compareTo(date);
+        return byDate != 0 ? byDate : Integer.compare(otherId, id);
+    }
+
+    private int lastPageIndex() {
+        return cursorDates.size() - 1;
+    }
+}
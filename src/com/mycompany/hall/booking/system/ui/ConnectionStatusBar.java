@@ -0,0 +1,82 @@
+// ConnectionStatusBar.java
+// Status bar at the bottom of the dashboards showing the data source's circuit breaker: connected,
+// unreachable with a countdown to the next automatic retry, or reconnecting. While unreachable,
+// calls fail at once instead of freezing the window, and this bar says why the data is stale.
+package com.mycompany.hall.booking.system.ui;
+
+import com.mycompany.hall.booking.system.CircuitBreaker;
+import com.mycompany.hall.booking.system.DataAccess;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.border.MatteBorder;
+import java.awt.Color;
+import java.awt.FlowLayout;
+import java.awt.Font;
+
+class ConnectionStatusBar extends JPanel {
+
+    private static final Color CONNECTED = new Color(40, 167, 69);
+    private static final Color UNREACHABLE = new Color(220, 53, 69);
+    private static final Color RECONNECTING = new Color(255, 152, 0);
+
+    private final CircuitBreaker breaker = DataAccess.get().getCircuitBreaker();
+    private final String target = DataAccess.isRemote() ? "الخادم" : "قاعدة البيانات";
+    private final JLabel label = new JLabel();
+    private final JButton retryButton = new JButton("إعادة المحاولة الآن");
+    private final CircuitBreaker.Listener listener = state -> SwingUtilities.invokeLater(this::update);
+    private final Timer countdown = new Timer(1000, e -> update()); // Ticks only while unreachable
+
+    ConnectionStatusBar() {
+        super(new FlowLayout(FlowLayout.RIGHT, 10, 2));
+        setBorder(new MatteBorder(1, 0, 0, 0, Color.LIGHT_GRAY));
+        label.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        retryButton.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        retryButton.addActionListener(e -> breaker.retryNow());
+        add(label);
+        add(retryButton);
+        update();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        breaker.addListener(listener);
+        update();
+    }
+
+    @Override
+    public void removeNotify() {
+        breaker.removeListener(listener);
+        countdown.stop();
+        super.removeNotify();
+    }
+
+    private void update() {
+        CircuitBreaker.State state = breaker.getState();
+        switch (state) {
+            case OPEN: {
+                long seconds = Math.max(0, (breaker.getNextProbeAtMillis() - System.currentTimeMillis() + 999) / 1000);
+                label.setText("● تعذر الاتصال ب" + target + " - إعادة المحاولة خلال " + seconds + " ث");
+                label.setForeground(UNREACHABLE);
+                break;
+            }
+            case HALF_OPEN:
+                label.setText("● جاري إعادة الاتصال ب" + target + "...");
+                label.setForeground(RECONNECTING);
+                break;
+            default:
+                label.setText("● متصل ب" + target);
+                label.setForeground(CONNECTED);
+        }
+        retryButton.setVisible(state == CircuitBreaker.State.OPEN);
+        if (state == CircuitBreaker.State.OPEN) {
+            if (!countdown.isRunning()) countdown.start();
+        } else {
+            countdown.stop();
+        }
+    }
+}
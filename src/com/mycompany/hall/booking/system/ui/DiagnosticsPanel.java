@@ -0,0 +1,105 @@
+// DiagnosticsPanel.java
+// Admin "Diagnostics" tab: call counts, errors and latency percentiles of each database
+// operation, the same for each SQL fingerprint the driver ran, and the connection pool figures.
+// Refreshes itself while the tab is on screen.
+package com.mycompany.hall.booking.system.ui;
+
+import com.mycompany.hall.booking.system.DataAccess;
+import com.mycompany.hall.booking.system.OperationMetrics;
+import com.mycompany.hall.booking.system.QueryStatsInterceptor;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+
+class DiagnosticsPanel extends JPanel {
+
+    private static final int REFRESH_INTERVAL_MS = 5000;
+
+    private final DefaultTableModel model;
+    private final DefaultTableModel statementsModel;
+    private final JLabel poolLabel = new JLabel(" ");
+
+    DiagnosticsPanel() {
+        super(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        String[] columnNames = {"العملية", "الاستدعاءات", "الأخطاء", "p50 (مللي ثانية)", "p99 (مللي ثانية)",
+                "الأقصى (مللي ثانية)", "متوسط انتظار الاتصال (مللي ثانية)"};
+        model = readOnlyModel(columnNames);
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(true); // Sort by p99 to find the slow ones
+
+        // Statements as the driver sent them, with values replaced by ?; slowest in total first
+        String[] statementColumns = {"الاستعلام", "مرات التنفيذ", "p50 (مللي ثانية)", "p99 (مللي ثانية)",
+                "الأقصى (مللي ثانية)", "الإجمالي (مللي ثانية)"};
+        statementsModel = readOnlyModel(statementColumns);
+        JTable statementsTable = new JTable(statementsModel);
+        statementsTable.setAutoCreateRowSorter(true);
+        statementsTable.getColumnModel().getColumn(0).setPreferredWidth(500);
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(table), new JScrollPane(statementsTable));
+        split.setResizeWeight(0.5);
+        add(poolLabel, BorderLayout.NORTH);
+        add(split, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton refreshButton = new JButton("تحديث");
+        refreshButton.addActionListener(e -> refresh());
+        JButton resetButton = new JButton("تصفير العدادات");
+        resetButton.addActionListener(e -> AsyncDatabase.run(() -> {
+            DataAccess.get().resetOperationStats();
+            return true;
+        }, done -> refresh()));
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(resetButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        Timer timer = new Timer(REFRESH_INTERVAL_MS, e -> {
+            if (isShowing()) refresh();
+        });
+        timer.start();
+    }
+
+    private void refresh() {
+        AsyncDatabase.load("diagnostics", () -> DataAccess.get().getOperationStats(), stats -> {
+            model.setRowCount(0);
+            for (OperationMetrics.Stats op : stats) {
+                model.addRow(new Object[]{op.getOperation(), op.getCalls(), op.getErrors(),
+                        round(op.getP50Millis()), round(op.getP99Millis()), round(op.getMaxMillis()),
+                        round(op.getAveragePoolWaitMillis())});
+            }
+        });
+        AsyncDatabase.load("statementStats", () -> DataAccess.get().getStatementStats(), stats -> {
+            statementsModel.setRowCount(0);
+            for (QueryStatsInterceptor.Stats statement : stats) {
+                statementsModel.addRow(new Object[]{statement.getFingerprint(), statement.getCalls(),
+                        round(statement.getP50Millis()), round(statement.getP99Millis()),
+                        round(statement.getMaxMillis()), round(statement.getTotalMillis())});
+            }
+        });
+        AsyncDatabase.load("poolSummary", () -> DataAccess.get().getPoolSummary(), summary ->
+                poolLabel.setText(summary == null ? "الاتصالات: غير متاح" : "الاتصالات: " + summary));
+    }
+
+    private static DefaultTableModel readOnlyModel(String[] columnNames) {
+        return new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+}
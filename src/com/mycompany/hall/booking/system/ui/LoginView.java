@@ -2,17 +2,18 @@
 // Handles user login.
 package com.mycompany.hall.booking.system.ui;
 
-import com.mycompany.hall.booking.system.DatabaseManager;
+import com.mycompany.hall.booking.system.DataAccess;
 import com.mycompany.hall.booking.system.User;
 import java.awt.*;
 import javax.swing.*;
 import javax.swing.border.*;
 
-public class LoginView extends JFrame {
+public final class LoginView extends JFrame {
 
     private final JTextField emailField;
     private final JPasswordField passwordField;
     private final JLabel errorLabel;
+    private final JButton loginButton;
 
     public LoginView() {
         // Frame setup
@@ -57,7 +58,7 @@ public class LoginView extends JFrame {
         formPanel.add(Box.createRigidArea(new Dimension(0, 20)));
 
         // Login Button
-        JButton loginButton = createButton("تسجيل الدخول");
+        loginButton = createButton("تسجيل الدخول");
         loginButton.addActionListener(e -> handleLogin());
         formPanel.add(loginButton);
         formPanel.add(Box.createRigidArea(new Dimension(0, 10)));
@@ -97,22 +98,69 @@ public class LoginView extends JFrame {
             return;
         }
 
-        User user = DatabaseManager.validateLogin(email, password);
-
-        if (user != null) {
-            // Login successful
-            dispose(); // Close login window
-            if ("admin".equalsIgnoreCase(user.getRole())) {
-                new AdminDashboard().setVisible(true);
+        // Check the credentials in the background so the window stays responsive
+        loginButton.setEnabled(false);
+        errorLabel.setText(" ");
+        AsyncDatabase.run(() -> login(email, password), outcome -> {
+            loginButton.setEnabled(true);
+            if (outcome.user != null) {
+                // Login successful
+                dispose(); // Close login window
+                if ("admin".equalsIgnoreCase(outcome.user.getRole())) {
+                    new AdminDashboard().setVisible(true);
+                } else {
+                    new UserDashboard(outcome.user).setVisible(true);
+                }
+            } else if (outcome.unreachable) {
+                errorLabel.setText("تعذر الاتصال بقاعدة البيانات. حاول لاحقاً.");
             } else {
-                new UserDashboard(user).setVisible(true);
+                // Login failed
+                errorLabel.setText("البريد الالكتروني او كلمة السر غير صحيحة.");
             }
-        } else {
-            // Login failed
-            errorLabel.setText("البريد الالكتروني او كلمة السر غير صحيحة.");
+        });
+    }
+
+    /**
+     * Result of a login attempt; {@code unreachable} tells a down database from a wrong password.
+     */
+    private static final class LoginOutcome {
+        final User user;
+        final boolean unreachable;
+
+        LoginOutcome(User user, boolean unreachable) {
+            this.user = user;
+            this.unreachable = unreachable;
         }
     }
 
+    // Runs in the background. Logging in always needs the database; the snapshot only
+    // keeps an already open dashboard readable while the database is down.
+    private static LoginOutcome login(String email, String password) {
+        User user = DataAccess.get().validateLogin(email, password);
+        if (user != null) return new LoginOutcome(user, false);
+        return new LoginOutcome(null, !DataAccess.get().isReachable());
+    }
+
+    /**
+     * Ties a dashboard to the current login: closing it logs out, and if the server drops the
+     * session the dashboard closes and the login screen comes back.
+     */
+    static void bindSession(JFrame dashboard) {
+        DataAccess.get().setSessionExpiredHandler(() -> SwingUtilities.invokeLater(() -> {
+            if (!dashboard.isDisplayable()) return; // Already closed
+            dashboard.dispose();
+            LoginView login = new LoginView();
+            login.errorLabel.setText("انتهت الجلسة، الرجاء تسجيل الدخول مجدداً.");
+            login.setVisible(true);
+        }));
+        dashboard.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                DataAccess.get().logout(); // Before EXIT_ON_CLOSE ends the process
+            }
+        });
+    }
+
     // Helper methods for creating styled components
     private JLabel createLabel(String text) {
         JLabel label = new JLabel(text);
@@ -0,0 +1,54 @@
+// PurposeDetails.java
+// Booking tables only show a preview of the purpose text; double-clicking a row fetches
+// and shows the full text for that one booking.
+package com.mycompany.hall.booking.system.ui;
+
+import com.mycompany.hall.booking.system.DataAccess;
+
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import java.awt.Dimension;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+final class PurposeDetails {
+
+    private PurposeDetails() {
+    }
+
+    /**
+     * Opens the full purpose of the double-clicked row; the booking id must be in column 0.
+     */
+    static void install(JTable table) {
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() != 2) return;
+                int row = table.rowAtPoint(e.getPoint());
+                if (row < 0) return;
+                Object id = table.getValueAt(row, 0);
+                if (id instanceof Integer) {
+                    show(table, (Integer) id);
+                }
+            }
+        });
+    }
+
+    private static void show(JTable parent, int bookingId) {
+        AsyncDatabase.run(() -> DataAccess.get().getBookingPurpose(bookingId), purpose -> {
+            if (purpose == null) {
+                JOptionPane.showMessageDialog(parent, "تعذر تحميل تفاصيل الحجز.", "خطأ", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JTextArea text = new JTextArea(purpose);
+            text.setEditable(false);
+            text.setLineWrap(true);
+            text.setWrapStyleWord(true);
+            JScrollPane scrollPane = new JScrollPane(text);
+            scrollPane.setPreferredSize(new Dimension(400, 200));
+            JOptionPane.showMessageDialog(parent, scrollPane, "الغرض من الحجز رقم " + bookingId, JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+}
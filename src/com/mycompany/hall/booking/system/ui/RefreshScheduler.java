@@ -0,0 +1,182 @@
+// RefreshScheduler.java
+// One application-wide scheduler for periodic refreshes. Each dataset (e.g. "bookings") is polled
+// by a single timer no matter how many windows show it, and the interval backs off while
+// those windows are unfocused or minimized.
+package com.mycompany.hall.booking.system.ui;
+
+import java.awt.Frame;
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public final class RefreshScheduler {
+
+    private static final RefreshScheduler INSTANCE = new RefreshScheduler();
+
+    // Interval multipliers applied while a subscribed window is in the background.
+    private static final int UNFOCUSED_FACTOR = 4;
+    private static final int MINIMIZED_FACTOR = 20;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "refresh-scheduler");
+        t.setDaemon(true); // Allows the app to close even if a refresh is scheduled
+        return t;
+    });
+    private final Map<String, Dataset> datasets = new HashMap<>();
+
+    private static final class Dataset {
+        final String name;
+        final long baseIntervalMillis;
+        final Runnable task;
+        final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        ScheduledFuture<?> next;
+        boolean immediatePending;
+        long lastRunMillis = System.currentTimeMillis();
+
+        Dataset(String name, long baseIntervalMillis, Runnable task) {
+            this.name = name;
+            this.baseIntervalMillis = baseIntervalMillis;
+            this.task = task;
+        }
+
+        long currentIntervalMillis() {
+            int factor = MINIMIZED_FACTOR;
+            for (Subscription subscription : subscriptions) {
+                factor = Math.min(factor, subscription.factor);
+            }
+            return baseIntervalMillis * factor;
+        }
+    }
+
+    /**
+     * A window's interest in a dataset. Cancelled automatically when the window closes.
+     */
+    public final class Subscription {
+        private final Dataset dataset;
+        private final Window window;
+        private final WindowAdapter windowListener;
+        private volatile int factor = 1;
+
+        private Subscription(Dataset dataset, Window window) {
+            this.dataset = dataset;
+            this.window = window;
+            this.windowListener = new WindowAdapter() {
+                @Override
+                public void windowGainedFocus(WindowEvent e) { updateFactor(); }
+                @Override
+                public void windowLostFocus(WindowEvent e) { updateFactor(); }
+                @Override
+                public void windowIconified(WindowEvent e) { updateFactor(); }
+                @Override
+                public void windowDeiconified(WindowEvent e) { updateFactor(); }
+                @Override
+                public void windowClosed(WindowEvent e) { cancel(); }
+                @Override
+                public void windowClosing(WindowEvent e) { cancel(); }
+            };
+            window.addWindowListener(windowListener);
+            window.addWindowFocusListener(windowListener);
+        }
+
+        private void updateFactor() {
+            boolean minimized = window instanceof Frame && (((Frame) window).getExtendedState() & Frame.ICONIFIED) != 0;
+            factor = minimized ? MINIMIZED_FACTOR : window.isFocused() ? 1 : UNFOCUSED_FACTOR;
+            reschedule(dataset);
+        }
+
+        public void cancel() {
+            window.removeWindowListener(windowListener);
+            window.removeWindowFocusListener(windowListener);
+            unsubscribe(this);
+        }
+    }
+
+    private RefreshScheduler() {
+    }
+
+    public static RefreshScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers how a dataset is refreshed. The task runs on the scheduler thread, so it may
+     * query the database; it must hand UI updates to the EDT itself. Registering the same
+     * dataset again is a no-op.
+     */
+    public synchronized void register(String dataset, long baseIntervalMillis, Runnable task) {
+        datasets.putIfAbsent(dataset, new Dataset(dataset, baseIntervalMillis, task));
+    }
+
+    /**
+     * Starts refreshing a registered dataset for as long as the window stays open.
+     */
+    public synchronized Subscription subscribe(String datasetName, Window window) {
+        Dataset dataset = datasets.get(datasetName);
+        if (dataset == null) throw new IllegalArgumentException("Unknown dataset: " + datasetName);
+        Subscription subscription = new Subscription(dataset, window);
+        dataset.subscriptions.add(subscription);
+        if (dataset.subscriptions.size() == 1) {
+            schedule(dataset, dataset.currentIntervalMillis());
+        }
+        return subscription;
+    }
+
+    /**
+     * Refreshes the dataset as soon as possible, e.g. right after a local write.
+     * Several requests before the refresh runs are merged into one.
+     */
+    public synchronized void requestRefresh(String datasetName) {
+        Dataset dataset = datasets.get(datasetName);
+        if (dataset == null || dataset.subscriptions.isEmpty() || dataset.immediatePending) return;
+        dataset.immediatePending = true;
+        schedule(dataset, 0);
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        Dataset dataset = subscription.dataset;
+        if (!dataset.subscriptions.remove(subscription)) return;
+        if (dataset.subscriptions.isEmpty() && dataset.next != null) {
+            dataset.next.cancel(false);
+            dataset.next = null;
+        }
+    }
+
+    // Applies a changed interval; catches up at once if the new interval is already overdue.
+    private synchronized void reschedule(Dataset dataset) {
+        if (dataset.subscriptions.isEmpty() || dataset.immediatePending) return;
+        long due = dataset.lastRunMillis + dataset.currentIntervalMillis() - System.currentTimeMillis();
+        schedule(dataset, Math.max(0, due));
+    }
+
+    private void schedule(Dataset dataset, long delayMillis) {
+        if (dataset.next != null) dataset.next.cancel(false);
+        dataset.next = executor.schedule(() -> run(dataset), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(Dataset dataset) {
+        synchronized (this) {
+            dataset.immediatePending = false;
+        }
+        try {
+            dataset.task.run();
+        } catch (RuntimeException e) {
+            System.err.println("Refresh of '" + dataset.name + "' failed: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                dataset.lastRunMillis = System.currentTimeMillis();
+                // An immediate refresh requested while this one ran is already queued.
+                if (!dataset.immediatePending && !dataset.subscriptions.isEmpty()) {
+                    schedule(dataset, dataset.currentIntervalMillis());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+// RoomUsagePanel.java
+// Admin "Usage reports" tab: requests, approvals and booked hours per room over a date range,
+// in total or per week/month, read from the room_usage_daily rollup.
+package com.mycompany.hall.booking.system.ui;
+
+import com.mycompany.hall.booking.system.DataAccess;
+import com.mycompany.hall.booking.system.RoomUsage;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+class RoomUsagePanel extends JPanel {
+
+    // Same order as RoomUsage.Period
+    private static final String[] PERIOD_NAMES = {"إجمالي", "شهري", "أسبوعي"};
+
+    private final DefaultTableModel model;
+    private final JTextField fromDateField;
+    private final JTextField toDateField;
+    private final JComboBox<String> periodBox = new JComboBox<>(PERIOD_NAMES);
+    private final JLabel statusLabel = new JLabel(" ");
+
+    RoomUsagePanel() {
+        super(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        LocalDate today = LocalDate.now();
+        fromDateField = new JTextField(today.withDayOfMonth(1).toString(), 8);
+        toDateField = new JTextField(today.withDayOfMonth(today.lengthOfMonth()).toString(), 8);
+        JButton showButton = new JButton("عرض التقرير");
+        showButton.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        showButton.addActionListener(e -> refresh());
+
+        JPanel criteriaPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        criteriaPanel.add(new JLabel("من تاريخ"));
+        criteriaPanel.add(fromDateField);
+        criteriaPanel.add(new JLabel("إلى تاريخ"));
+        criteriaPanel.add(toDateField);
+        criteriaPanel.add(new JLabel("التجميع"));
+        criteriaPanel.add(periodBox);
+        criteriaPanel.add(showButton);
+        add(criteriaPanel, BorderLayout.NORTH);
+
+        String[] columnNames = {"القاعة", "الفترة", "المعلقة", "المقبولة", "المرفوضة", "الساعات المحجوزة", "نسبة القبول %"};
+        model = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        table.setRowHeight(25);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton rebuildButton = new JButton("إعادة بناء الإحصائيات");
+        rebuildButton.addActionListener(e -> rebuild(rebuildButton));
+        buttonPanel.add(statusLabel);
+        buttonPanel.add(rebuildButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void refresh() {
+        Date from;
+        Date to;
+        try {
+            from = Date.valueOf(LocalDate.parse(fromDateField.getText().trim()));
+            to = Date.valueOf(LocalDate.parse(toDateField.getText().trim()));
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "صيغة التاريخ غير صالحة. الرجاء استخدام YYYY-MM-DD.", "خطأ في الصيغة", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (to.before(from)) {
+            JOptionPane.showMessageDialog(this, "تاريخ النهاية قبل تاريخ البداية.", "خطأ", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        RoomUsage.Period period = RoomUsage.Period.values()[periodBox.getSelectedIndex()];
+        statusLabel.setText("جاري التحميل...");
+        AsyncDatabase.load("roomUsage:" + from + "|" + to + "|" + period,
+                () -> DataAccess.get().getRoomUsage(from, to, period), rows -> {
+            model.setRowCount(0);
+            for (RoomUsage usage : rows) {
+                model.addRow(new Object[]{usage.getRoomName(), usage.getPeriod() == null ? "كامل الفترة" : usage.getPeriod(),
+                        usage.getPendingCount(), usage.getApprovedCount(), usage.getRejectedCount(),
+                        Math.round(usage.getApprovedHours() * 10) / 10.0, Math.round(usage.getApprovalRate() * 100)});
+            }
+            statusLabel.setText("عدد الصفوف: " + rows.size());
+        });
+    }
+
+    private void rebuild(JButton rebuildButton) {
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "سيتم حساب الإحصائيات من جديد من كل الحجوزات. هل تريد المتابعة؟", "تأكيد", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) return;
+        rebuildButton.setEnabled(false);
+        statusLabel.setText("جاري إعادة البناء...");
+        AsyncDatabase.run(() -> DataAccess.get().rebuildRoomUsage(), rooms -> {
+            rebuildButton.setEnabled(true);
+            if (rooms < 0) {
+                statusLabel.setText(" ");
+                JOptionPane.showMessageDialog(this, "تعذرت إعادة بناء الإحصائيات.", "خطأ", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            statusLabel.setText("تمت إعادة بناء إحصائيات " + rooms + " قاعة");
+            refresh();
+        });
+    }
+}
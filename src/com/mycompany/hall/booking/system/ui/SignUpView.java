@@ -2,13 +2,13 @@
 // Handles new user registration.
 package com.mycompany.hall.booking.system.ui;
 
-import com.mycompany.hall.booking.system.DatabaseManager;
+import com.mycompany.hall.booking.system.DataAccess;
 import com.mycompany.hall.booking.system.User;
 import java.awt.*;
 import javax.swing.*;
 import javax.swing.border.*;
 
-public class SignUpView extends JFrame {
+public final class SignUpView extends JFrame {
 
     private final JTextField nameField;
     private final JTextField emailField;
@@ -102,22 +102,19 @@ public class SignUpView extends JFrame {
             return;
         }
 
-        // Check if user already exists
-        if(DatabaseManager.getUserByEmail(email) != null){
-            errorLabel.setText("البريد الالكتروني مستعمل حاول مرة اخرى.");
-            return;
-        }
-
         User newUser = new User(0, name, email, password, "user"); // Default role is "user"
-        boolean success = DatabaseManager.registerUser(newUser);
-
-        if (success) {
-            JOptionPane.showMessageDialog(this, "تمت العملية بنجاح، سجل دخولك.", "نجاح", JOptionPane.INFORMATION_MESSAGE);
-            new LoginView().setVisible(true);
-            dispose();
-        } else {
-            errorLabel.setText("حدث خطأ ما يرجى إعادة المحاولة.");
-        }
+
+        // Register in the background. Emails are unique in Users, so a taken email fails here too;
+        // there is no separate lookup, which would let anyone check which emails have accounts.
+        AsyncDatabase.run(() -> DataAccess.get().registerUser(newUser), success -> {
+            if (success) {
+                JOptionPane.showMessageDialog(this, "تمت العملية بنجاح، سجل دخولك.", "نجاح", JOptionPane.INFORMATION_MESSAGE);
+                new LoginView().setVisible(true);
+                dispose();
+            } else {
+                errorLabel.setText("تعذر إنشاء الحساب، قد يكون البريد الالكتروني مستعملا. حاول مرة اخرى.");
+            }
+        });
     }
     
     // Helper methods for creating styled components
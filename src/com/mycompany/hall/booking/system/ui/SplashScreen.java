@@ -13,7 +13,7 @@ import javax.swing.JProgressBar;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 
-public class SplashScreen extends JFrame {
+public final class SplashScreen extends JFrame {
 
     public SplashScreen() {
         // Frame setup
@@ -0,0 +1,132 @@
+// StartupWarmup.java
+// Work done behind the splash screen so the first login does not pay for it: loading the JDBC
+// driver, opening the pool's first connections, migrating the schema, loading the room catalog
+// and initializing Swing's look-and-feel. Independent phases run in parallel and each logs its time.
+// The schema migration is the exception to the time limit: the login window only opens once it is
+// done, since the app's queries need the tables it creates.
+package com.mycompany.hall.booking.system.ui;
+
+import com.mycompany.hall.booking.system.DataAccess;
+import com.mycompany.hall.booking.system.DatabaseManager;
+import com.mycompany.hall.booking.system.RoomCache;
+import com.mycompany.hall.booking.system.SchemaMigrator;
+
+import javax.swing.UIManager;
+import java.awt.Font;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+final class StartupWarmup {
+
+    // The splash stays up at least this long so it does not just flash, and the app starts
+    // after at most MAX_WARMUP_MS (plus whatever the migration still needs) even if the
+    // database is slow to answer.
+    private static final long MIN_SPLASH_MS = Long.getLong("hallbooking.splash.minMs", 1000);
+    private static final long MAX_WARMUP_MS = Long.getLong("hallbooking.splash.maxMs", 15000);
+
+    private StartupWarmup() {
+    }
+
+    /**
+     * Runs the warm-up and returns once it is done (or timed out), the schema migration has
+     * finished and the minimum splash time has passed. Blocks, so call it off the EDT.
+     *
+     * @return false if the schema could not be brought up to date
+     */
+    static boolean run() {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        CompletableFuture<Void> lookAndFeel = phase(executor, "look-and-feel", StartupWarmup::initLookAndFeel);
+        CompletableFuture<Void> warmup = lookAndFeel;
+        CompletableFuture<Boolean> schema = CompletableFuture.completedFuture(true); // The server migrates its own
+        if (!DataAccess.isRemote()) {
+            // driver -> pool, then schema and rooms side by side on the pool's first connections
+            CompletableFuture<Void> pool = phase(executor, "jdbc-driver", StartupWarmup::loadDriver)
+                    .thenCompose(v -> phase(executor, "connection-pool", DatabaseManager::warmUpPool));
+            // Migrate even if the warm-up failed; migrate() opens its own connection and reports the outcome
+            schema = pool.handle((v, e) -> null).thenApplyAsync(v -> migrate(), executor);
+            CompletableFuture<Void> rooms = pool.thenCompose(v -> phase(executor, "room-catalog", () -> RoomCache.getInstance().getRooms()));
+            warmup = CompletableFuture.allOf(lookAndFeel, rooms);
+        }
+
+        try {
+            warmup.get(MAX_WARMUP_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Startup: warm-up still running after " + MAX_WARMUP_MS + " ms; continuing without it");
+        } catch (ExecutionException e) {
+            // Already logged by the failing phase; the app reports database problems on first use
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // No time limit here: the login window must not open on a half-migrated schema
+        boolean schemaReady = schema.join();
+        executor.shutdown();
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("Startup: warm-up finished in " + elapsed + " ms");
+        if (elapsed < MIN_SPLASH_MS) {
+            try {
+                Thread.sleep(MIN_SPLASH_MS - elapsed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return schemaReady;
+    }
+
+    private static boolean migrate() {
+        long start = System.nanoTime();
+        boolean migrated;
+        try {
+            migrated = SchemaMigrator.migrate();
+        } catch (RuntimeException e) {
+            System.err.println("Startup: schema-migration failed: " + e.getMessage());
+            migrated = false;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (migrated) {
+            System.out.println("Startup: schema-migration took " + millis + " ms");
+        } else {
+            System.err.println("Startup: the database schema could not be brought up to date (" + millis + " ms)");
+        }
+        return migrated;
+    }
+
+    private static CompletableFuture<Void> phase(ExecutorService executor, String name, Runnable work) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                work.run();
+                System.out.println("Startup: " + name + " took " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            } catch (RuntimeException e) {
+                System.err.println("Startup: " + name + " failed after "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms: " + e.getMessage());
+                throw e;
+            }
+        }, executor);
+    }
+
+    private static void loadDriver() {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Database driver not found", e);
+        }
+    }
+
+    private static void initLookAndFeel() {
+        UIManager.put("OptionPane.okButtonText", "موافق");
+        UIManager.put("OptionPane.cancelButtonText", "إلغاء");
+        UIManager.put("OptionPane.yesButtonText", "نعم");
+        UIManager.put("OptionPane.noButtonText", "لا");
+        UIManager.getLookAndFeelDefaults();
+        // Loading the font files is the slow part of opening the first window
+        new Font("Segoe UI", Font.PLAIN, 14).getFamily();
+        new Font("Segoe UI", Font.BOLD, 24).getFamily();
+    }
+}
@@ -0,0 +1,52 @@
+// TableRows.java
+// Helpers for patching rows of a DefaultTableModel in place instead of rebuilding it.
+package com.mycompany.hall.booking.system.ui;
+
+import javax.swing.table.DefaultTableModel;
+import java.util.Date;
+
+final class TableRows {
+
+    private TableRows() {
+    }
+
+    /**
+     * Returns the index of the row whose ID column (column 0) equals {@code id}, or -1.
+     */
+    static int findRowById(DefaultTableModel model, int id) {
+        for (int row = 0; row < model.getRowCount(); row++) {
+            Object value = model.getValueAt(row, 0);
+            if (value instanceof Integer && (Integer) value == id) return row;
+        }
+        return -1;
+    }
+
+    static void removeById(DefaultTableModel model, int id) {
+        int row = findRowById(model, id);
+        if (row >= 0) model.removeRow(row);
+    }
+
+    /**
+     * Replaces the row with the same ID (column 0), or inserts a new row keeping the
+     * table ordered by the date in {@code dateColumn}.
+     */
+    static void upsert(DefaultTableModel model, Object[] values, int dateColumn, boolean newestFirst) {
+        int row = findRowById(model, (Integer) values[0]);
+        if (row >= 0) {
+            for (int col = 0; col < values.length; col++) {
+                model.setValueAt(values[col], row, col);
+            }
+            return;
+        }
+        Date date = (Date) values[dateColumn];
+        int insertAt = model.getRowCount();
+        for (int i = 0; i < model.getRowCount(); i++) {
+            Date other = (Date) model.getValueAt(i, dateColumn);
+            if (other != null && date != null && (newestFirst ? other.before(date) : other.after(date))) {
+                insertAt = i;
+                break;
+            }
+        }
+        model.insertRow(insertAt, values);
+    }
+}
@@ -1,9 +1,13 @@
 // UserDashboard.java
 package com.mycompany.hall.booking.system.ui;
 
+import com.mycompany.hall.booking.system.AvailabilityIndex;
 import com.mycompany.hall.booking.system.Booking;
-import com.mycompany.hall.booking.system.DatabaseManager;
+import com.mycompany.hall.booking.system.BookingChanges;
+import com.mycompany.hall.booking.system.CircuitBreaker;
+import com.mycompany.hall.booking.system.DataAccess;
 import com.mycompany.hall.booking.system.Room;
+import com.mycompany.hall.booking.system.SnapshotStore;
 import com.mycompany.hall.booking.system.User;
 
 import javax.swing.*;
@@ -12,15 +16,35 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-public class UserDashboard extends JFrame {
+public final class UserDashboard extends JFrame {
 
     private final User currentUser;
     private JTable roomsTable;
     private JTable bookingsTable;
-    private volatile boolean isRunning = true; // Flag to control the auto-refresh thread
+    private volatile long changeVersion = -1; // Last booking change-log version applied to the tables (-1 until loaded)
+    private int searchGeneration; // Incremented per room search so late results of older searches are ignored
+
+    // What the tables show, kept for the offline snapshot (see SnapshotStore)
+    private final List<Room> rooms = new ArrayList<>();
+    private final Map<Integer, Booking> myBookings = new LinkedHashMap<>();
+    private boolean roomsLoaded;
+    private boolean bookingsLoaded;
+    private long snapshotSavedAt;
+
+    // Offline mode: the database is unreachable, so the tables show the snapshot and writes are disabled
+    private final JLabel offlineBanner = new JLabel(" ", SwingConstants.CENTER);
+    private final List<JComponent> writeControls = new ArrayList<>();
+    private boolean offline;
 
     public UserDashboard(User user) {
         this.currentUser = user;
@@ -29,57 +53,61 @@ public class UserDashboard extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(850, 600);
         setLocationRelativeTo(null);
-        
-        // listener to stop the background thread when the window is closed
-        addWindowListener(new java.awt.event.WindowAdapter() {
-            @Override
-            public void windowClosing(java.awt.event.WindowEvent windowEvent) {
-                isRunning = false; // Signal the refresh thread to terminate
-            }
-        });
-
 
         // Main Tabbed Pane
         JTabbedPane tabbedPane = new JTabbedPane();
         tabbedPane.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         
         tabbedPane.addTab("القاعات المتاحة", createRoomsPanel());
+        tabbedPane.addTab("البحث عن قاعة متاحة", createSearchPanel());
         tabbedPane.addTab("حجوزاتي", createMyBookingsPanel());
 
+        offlineBanner.setOpaque(true);
+        offlineBanner.setBackground(new Color(255, 193, 7));
+        offlineBanner.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        offlineBanner.setBorder(new EmptyBorder(6, 10, 6, 10));
+        offlineBanner.setVisible(false);
+        add(offlineBanner, BorderLayout.NORTH);
         add(tabbedPane);
+        add(new ConnectionStatusBar(), BorderLayout.SOUTH);
+        LoginView.bindSession(this);
+
+        // Show the last synced data straight away; the database then only has to send what changed
+        SnapshotStore.Snapshot snapshot = SnapshotStore.load(currentUser.getEmail());
+        if (snapshot != null && snapshot.getUser().getId() == currentUser.getId()) {
+            showSnapshot(snapshot);
+        }
+        // Go read-only while the circuit breaker is open, and catch up once it closes again
+        CircuitBreaker breaker = DataAccess.get().getCircuitBreaker();
+        CircuitBreaker.Listener breakerListener = state -> SwingUtilities.invokeLater(() -> connectionChanged(state));
+        breaker.addListener(breakerListener);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                breaker.removeListener(breakerListener);
+            }
+        });
+        if (breaker.getState() == CircuitBreaker.State.CLOSED) {
+            loadFromDatabase();
+        } else {
+            setOffline(true);
+        }
         
-        // Load initial data into tables
-        refreshRoomsTable();
-        refreshBookingsTable();
-        
-        // Start the background thread for auto-refreshing
-        startAutoRefresh();
-    }
-    
-    /**
-    * method that starts a background thread that refreshes the list
-    * of pending bookings without freezing the user interface.
-    */
-    private void startAutoRefresh() {
-        Thread refreshThread = new Thread(() -> {
-            while (isRunning) {
-                try {
-                    Thread.sleep(30000); // Wait for 30 seconds
-                    
-                    SwingUtilities.invokeLater(() -> {
-                        System.out.println("Auto-refreshing pending bookings...");
-                        refreshBookingsTable();
-                    });
-                } catch (InterruptedException e) {
-                    System.out.println("Auto-refresh thread was interrupted.");
-                }
+        // Keep the tables current: the server (or this JVM) signals changes, the scheduler fetches them
+        BookingChangeFeed.subscribeRooms(this, this::refreshRoomsTable);
+        BookingChangeFeed.subscribe(this, new BookingChangeFeed.Listener() {
+            @Override
+            public long getChangeVersion() {
+                return changeVersion;
+            }
+
+            @Override
+            public void applyChanges(BookingChanges changes) {
+                patchBookingsTable(changes);
             }
-            System.out.println("Auto-refresh thread has stopped.");
         });
-        refreshThread.setDaemon(true); // Allows the app to close even if this thread is running
-        refreshThread.start();
     }
-
+    
     private JPanel createRoomsPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -105,12 +133,110 @@ public class UserDashboard extends JFrame {
         bookButton.setFont(new Font("Segoe UI", Font.BOLD, 12));
         bookButton.addActionListener(e -> bookRoom());
         buttonPanel.add(bookButton);
+        writeControls.add(bookButton);
         
         panel.add(buttonPanel, BorderLayout.SOUTH);
         
         return panel;
     }
 
+    /**
+     * Panel for finding rooms with enough seats that are free in a given time window.
+     */
+    private JPanel createSearchPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        // Search criteria
+        JTextField capacityField = new JTextField("1", 4);
+        JTextField fromDateField = new JTextField(LocalDate.now().toString(), 8);
+        JTextField toDateField = new JTextField(LocalDate.now().toString(), 8);
+        JTextField startTimeField = new JTextField("09:00:00", 6);
+        JTextField endTimeField = new JTextField("10:00:00", 6);
+        JButton searchButton = new JButton("بحث");
+        searchButton.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        writeControls.add(searchButton); // Searching needs the live database too
+
+        JPanel criteriaPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        criteriaPanel.add(new JLabel("السعة الأدنى"));
+        criteriaPanel.add(capacityField);
+        criteriaPanel.add(new JLabel("من تاريخ"));
+        criteriaPanel.add(fromDateField);
+        criteriaPanel.add(new JLabel("إلى تاريخ"));
+        criteriaPanel.add(toDateField);
+        criteriaPanel.add(new JLabel("من"));
+        criteriaPanel.add(startTimeField);
+        criteriaPanel.add(new JLabel("إلى"));
+        criteriaPanel.add(endTimeField);
+        criteriaPanel.add(searchButton);
+        panel.add(criteriaPanel, BorderLayout.NORTH);
+
+        // Results table
+        String[] columnNames = {"ID", "اسم القاعة", "السعة"};
+        DefaultTableModel model = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable resultsTable = new JTable(model);
+        resultsTable.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        resultsTable.setRowHeight(25);
+        panel.add(new JScrollPane(resultsTable), BorderLayout.CENTER);
+
+        JLabel resultLabel = new JLabel(" ");
+        JButton bookButton = new JButton("حجز القاعة المحددة");
+        bookButton.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        writeControls.add(bookButton);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(resultLabel);
+        buttonPanel.add(bookButton);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        searchButton.addActionListener(e -> {
+            try {
+                int minCapacity = Integer.parseInt(capacityField.getText().trim());
+                LocalDate fromDate = LocalDate.parse(fromDateField.getText().trim());
+                LocalDate toDate = LocalDate.parse(toDateField.getText().trim());
+                LocalTime start = LocalTime.parse(startTimeField.getText().trim());
+                LocalTime end = LocalTime.parse(endTimeField.getText().trim());
+
+                if (fromDate.isBefore(LocalDate.now()) || toDate.isBefore(fromDate) || !end.isAfter(start)) {
+                    JOptionPane.showMessageDialog(this, "الرجاء إدخال فترة صحيحة تبدأ من اليوم فصاعداً.", "خطأ", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                resultLabel.setText("جاري البحث...");
+                int search = ++searchGeneration;
+                String criteria = minCapacity + "|" + fromDate + "|" + toDate + "|" + start + "|" + end;
+                AsyncDatabase.load(loadKey("roomSearch:" + criteria),
+                        () -> DataAccess.get().findFreeRooms(minCapacity, fromDate, toDate, start, end),
+                        rooms -> {
+                    if (search != searchGeneration) return; // A newer search was started meanwhile
+                    model.setRowCount(0);
+                    for (Room room : rooms) {
+                        model.addRow(new Object[]{room.getId(), room.getName(), room.getCapacity()});
+                    }
+                    resultLabel.setText("عدد القاعات المتاحة: " + rooms.size());
+                });
+            } catch (NumberFormatException | DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(this, "صيغة البيانات غير صالحة. الرجاء استخدام YYYY-MM-DD و HH:MM:SS.", "خطأ في الصيغة", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        bookButton.addActionListener(e -> {
+            int selectedRow = resultsTable.getSelectedRow();
+            if (selectedRow == -1) {
+                JOptionPane.showMessageDialog(this, "الرجاء اختيار قاعة للحجز.", "خطأ", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            int roomId = (int) resultsTable.getValueAt(selectedRow, 0);
+            showBookingDialog(roomId, fromDateField.getText().trim(), startTimeField.getText().trim(), endTimeField.getText().trim());
+        });
+
+        return panel;
+    }
+
     private JPanel createMyBookingsPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(new EmptyBorder(10, 10, 10, 10));
@@ -126,6 +252,7 @@ public class UserDashboard extends JFrame {
         bookingsTable = new JTable(model);
         bookingsTable.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         bookingsTable.setRowHeight(25);
+        PurposeDetails.install(bookingsTable); // Double-click a booking to read its full purpose
         panel.add(new JScrollPane(bookingsTable), BorderLayout.CENTER);
         
         // NEW: Add a button to cancel a booking
@@ -136,6 +263,7 @@ public class UserDashboard extends JFrame {
         cancelButton.setFont(new Font("Segoe UI", Font.BOLD, 12));
         cancelButton.addActionListener(e -> cancelBooking());
         buttonPanel.add(cancelButton);
+        writeControls.add(cancelButton);
         panel.add(buttonPanel, BorderLayout.SOUTH);
         
         return panel;
@@ -161,12 +289,14 @@ public class UserDashboard extends JFrame {
         int choice = JOptionPane.showConfirmDialog(this, "هل أنت متأكد أنك تريد إلغاء هذا الحجز؟", "تأكيد الإلغاء", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         
         if (choice == JOptionPane.YES_OPTION) {
-            if (DatabaseManager.deleteBooking(bookingId)) {
-                JOptionPane.showMessageDialog(this, "تم إلغاء الحجز بنجاح.", "نجاح", JOptionPane.INFORMATION_MESSAGE);
-                refreshBookingsTable(); // Refresh the table to show the change
-            } else {
-                JOptionPane.showMessageDialog(this, "فشل إلغاء الحجز.", "خطأ", JOptionPane.ERROR_MESSAGE);
-            }
+            AsyncDatabase.run(() -> DataAccess.get().deleteBooking(bookingId), deleted -> {
+                if (deleted) {
+                    JOptionPane.showMessageDialog(this, "تم إلغاء الحجز بنجاح.", "نجاح", JOptionPane.INFORMATION_MESSAGE);
+                    BookingChangeFeed.refreshNow(); // Refresh the table to show the change
+                } else {
+                    JOptionPane.showMessageDialog(this, "فشل إلغاء الحجز.", "خطأ", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
     
@@ -177,12 +307,19 @@ public class UserDashboard extends JFrame {
             return;
         }
         int roomId = (int) roomsTable.getValueAt(selectedRow, 0);
+        showBookingDialog(roomId, "YYYY-MM-DD", "HH:MM:SS", "HH:MM:SS");
+    }
 
+    /**
+     * Shows the booking details dialog for a room, pre-filled with the given values,
+     * and submits the booking request.
+     */
+    private void showBookingDialog(int roomId, String initialDate, String initialStart, String initialEnd) {
         // Create a custom dialog for booking details
         JTextField purposeField = new JTextField();
-        JTextField dateField = new JTextField("YYYY-MM-DD");
-        JTextField startTimeField = new JTextField("HH:MM:SS");
-        JTextField endTimeField = new JTextField("HH:MM:SS");
+        JTextField dateField = new JTextField(initialDate);
+        JTextField startTimeField = new JTextField(initialStart);
+        JTextField endTimeField = new JTextField(initialEnd);
         
         final JComponent[] inputs = new JComponent[] {
                 new JLabel("الغرض من الحجز"),
@@ -209,51 +346,219 @@ public class UserDashboard extends JFrame {
                     return;
                 }
 
-                // Create and save the new booking
+                java.sql.Date sqlDate = java.sql.Date.valueOf(dateField.getText());
+                java.sql.Time startTime = java.sql.Time.valueOf(startTimeField.getText());
+                java.sql.Time endTime = java.sql.Time.valueOf(endTimeField.getText());
+
+                if (!endTime.after(startTime)) {
+                    JOptionPane.showMessageDialog(this, "يجب أن يكون وقت الانتهاء بعد وقت البدء.", "خطأ في الوقت", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                // Create the new booking
                 Booking newBooking = new Booking();
                 newBooking.setUserId(currentUser.getId());
                 newBooking.setRoomId(roomId);
                 newBooking.setPurpose(purposeField.getText());
-                newBooking.setDate(java.sql.Date.valueOf(dateField.getText()));
-                newBooking.setStartTime(java.sql.Time.valueOf(startTimeField.getText()));
-                newBooking.setEndTime(java.sql.Time.valueOf(endTimeField.getText()));
+                newBooking.setDate(sqlDate);
+                newBooking.setStartTime(startTime);
+                newBooking.setEndTime(endTime);
                 newBooking.setStatus("pending"); // All new bookings are pending
 
-                if (DatabaseManager.createBooking(newBooking)) {
-                    JOptionPane.showMessageDialog(this, "تم إرسال طلب الحجز بنجاح وهو الآن قيد الانتظار للموافقة.", "نجاح", JOptionPane.INFORMATION_MESSAGE);
-                    refreshBookingsTable();
-                } else {
-                    JOptionPane.showMessageDialog(this, "فشل إرسال طلب الحجز.", "خطأ", JOptionPane.ERROR_MESSAGE);
-                }
+                checkAndSubmit(newBooking);
             } catch (IllegalArgumentException | ParseException ex) {
                 JOptionPane.showMessageDialog(this, "صيغة التاريخ أو الوقت غير صالحة. الرجاء استخدام YYYY-MM-DD و HH:MM:SS.", "خطأ في الصيغة", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
+
+    /**
+     * Warns straight away if the local availability index already shows an overlap, then submits.
+     * The index can lag behind other clients, so the user may send the request anyway and the
+     * database's answer is final. Clients of a BookingServer have no local index and skip the warning.
+     */
+    private void checkAndSubmit(Booking newBooking) {
+        if (DataAccess.isRemote()) {
+            submitBooking(newBooking);
+            return;
+        }
+        AsyncDatabase.run(() -> AvailabilityIndex.getInstance().findConflicts(newBooking.getRoomId(),
+                newBooking.getDate(), newBooking.getStartTime(), newBooking.getEndTime()), conflicts -> {
+            if (conflicts != null && !conflicts.isEmpty()) {
+                int choice = JOptionPane.showConfirmDialog(this, "يبدو أن القاعة محجوزة في هذا الوقت (رقم الحجز المتعارض: "
+                        + conflicts + "). هل تريد إرسال الطلب على أي حال؟", "تعارض محتمل", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+                if (choice != JOptionPane.YES_OPTION) return;
+            }
+            submitBooking(newBooking);
+        });
+    }
+
+    private void submitBooking(Booking newBooking) {
+        // Save in the background; overlapping bookings are refused by the database
+        AsyncDatabase.run(() -> DataAccess.get().createBooking(newBooking), outcome -> {
+            switch (outcome.getStatus()) {
+                case CREATED:
+                    JOptionPane.showMessageDialog(this, "تم إرسال طلب الحجز بنجاح وهو الآن قيد الانتظار للموافقة.", "نجاح", JOptionPane.INFORMATION_MESSAGE);
+                    BookingChangeFeed.refreshNow();
+                    break;
+                case CONFLICT:
+                    JOptionPane.showMessageDialog(this, "القاعة محجوزة في هذا الوقت (رقم الحجز المتعارض: " + outcome.getConflictingIds() + ").", "تعارض في الحجز", JOptionPane.ERROR_MESSAGE);
+                    break;
+                default:
+                    JOptionPane.showMessageDialog(this, "فشل إرسال طلب الحجز.", "خطأ", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
     
+    /**
+     * Catches the tables up with the database: only the changes since the snapshot if one is
+     * on screen, otherwise a full load.
+     */
+    private void loadFromDatabase() {
+        if (changeVersion >= 0) {
+            refreshRoomsTable();
+            BookingChangeFeed.refreshNow();
+            return;
+        }
+        // Load initial data into tables; later refreshes only fetch what changed since this version
+        AsyncDatabase.load(loadKey("changeVersion"), () -> DataAccess.get().getCurrentChangeVersion(), version -> {
+            changeVersion = version;
+            refreshRoomsTable();
+            refreshBookingsTable();
+        });
+    }
+
     private void refreshRoomsTable() {
+        if (offline) return; // Keep showing the snapshot
+        AsyncDatabase.load("rooms", () -> DataAccess.get().getAvailableRooms(), loaded -> {
+            showRooms(loaded);
+            saveSnapshot();
+        });
+    }
+
+
+    private void refreshBookingsTable() {
+        if (offline) return;
+        int userId = currentUser.getId();
+        AsyncDatabase.load(loadKey("myBookings"), () -> DataAccess.get().getBookingsByUser(userId), bookings -> {
+            showBookings(bookings);
+            saveSnapshot();
+        });
+    }
+
+    private void showRooms(List<Room> loaded) {
+        rooms.clear();
+        rooms.addAll(loaded);
+        roomsLoaded = true;
         DefaultTableModel model = (DefaultTableModel) roomsTable.getModel();
         model.setRowCount(0);
-        ArrayList<Room> rooms = DatabaseManager.getAvailableRooms();
-        for (Room room : rooms) {
+        for (Room room : loaded) {
             model.addRow(new Object[]{room.getId(), room.getName(), room.getCapacity()});
         }
     }
 
-
-    private void refreshBookingsTable() {
+    private void showBookings(List<Booking> bookings) {
+        myBookings.clear();
+        bookingsLoaded = true;
         DefaultTableModel model = (DefaultTableModel) bookingsTable.getModel();
         model.setRowCount(0);
-        ArrayList<Booking> bookings = DatabaseManager.getBookingsByUser(currentUser.getId());
         for (Booking booking : bookings) {
-            model.addRow(new Object[]{
-                booking.getId(), 
-                booking.getRoomName(), 
-                booking.getPurpose(),   
-                booking.getDate(), 
-                booking.getStatus()
-            });
+            myBookings.put(booking.getId(), booking);
+            model.addRow(toBookingRow(booking));
+        }
+    }
+
+    private void showSnapshot(SnapshotStore.Snapshot snapshot) {
+        showRooms(snapshot.getRooms());
+        List<Booking> bookings = new ArrayList<>(snapshot.getBookings());
+        bookings.sort(Comparator.comparing(Booking::getDate).reversed()); // As getBookingsByUser orders them
+        showBookings(bookings);
+        changeVersion = snapshot.getChangeVersion();
+        snapshotSavedAt = snapshot.getSavedAtMillis();
+    }
+
+    /**
+     * Writes what is on screen to the snapshot, in the background. Skipped until both tables
+     * have loaded, so a snapshot never pairs a change version with half the data.
+     */
+    private void saveSnapshot() {
+        if (offline || changeVersion < 0 || !roomsLoaded || !bookingsLoaded) return;
+        long version = changeVersion;
+        List<Room> roomsCopy = new ArrayList<>(rooms);
+        List<Booking> bookingsCopy = new ArrayList<>(myBookings.values());
+        AsyncDatabase.run(() -> SnapshotStore.save(currentUser, version, roomsCopy, bookingsCopy), saved -> {
+            if (saved) snapshotSavedAt = System.currentTimeMillis();
+        });
+    }
+
+    private void connectionChanged(CircuitBreaker.State state) {
+        if (state == CircuitBreaker.State.CLOSED && offline) {
+            setOffline(false);
+            loadFromDatabase(); // Only the changes since the snapshot's version
+        } else if (state == CircuitBreaker.State.OPEN && !offline) {
+            setOffline(true);
+        }
+    }
+
+    private void setOffline(boolean offline) {
+        this.offline = offline;
+        for (JComponent control : writeControls) {
+            control.setEnabled(!offline);
+        }
+        if (offline) {
+            String since = snapshotSavedAt > 0
+                    ? "البيانات المعروضة من آخر مزامنة في " + new SimpleDateFormat("yyyy-MM-dd HH:mm").format(new Date(snapshotSavedAt))
+                    : "لا توجد بيانات محفوظة على هذا الجهاز";
+            offlineBanner.setText("وضع عدم الاتصال (للقراءة فقط): قاعدة البيانات غير متاحة. " + since
+                    + ". ستتم المزامنة تلقائياً عند عودة الاتصال.");
         }
+        offlineBanner.setVisible(offline);
+    }
+
+    /**
+     * Patches "my bookings" with the bookings changed since the last refresh
+     * instead of reloading the whole table.
+     */
+    private void patchBookingsTable(BookingChanges changes) {
+        if (changes == null) return; // Database unreachable; try again on the next refresh
+        if (changes.getToVersion() <= changeVersion) return; // Nothing new, or already applied
+        changeVersion = changes.getToVersion();
+        if (changes.isReloadRequired()) {
+            // The changes we missed were pruned from the log; start over from the current version
+            refreshBookingsTable();
+            return;
+        }
+
+        DefaultTableModel model = (DefaultTableModel) bookingsTable.getModel();
+        for (int bookingId : changes.getDeletedIds()) {
+            TableRows.removeById(model, bookingId);
+            myBookings.remove(bookingId);
+        }
+        for (Booking booking : changes.getUpserted()) {
+            if (booking.getUserId() == currentUser.getId()) {
+                TableRows.upsert(model, toBookingRow(booking), 3, true);
+                myBookings.put(booking.getId(), booking);
+            } else {
+                TableRows.removeById(model, booking.getId());
+                myBookings.remove(booking.getId());
+            }
+        }
+        saveSnapshot();
+    }
+
+    // Keys requests that belong to this window, so two open dashboards never share results.
+    private String loadKey(String dataset) {
+        return "user" + currentUser.getId() + "@" + System.identityHashCode(this) + "." + dataset;
+    }
+
+    private Object[] toBookingRow(Booking booking) {
+        return new Object[]{
+            booking.getId(),
+            booking.getRoomName(),
+            booking.getPurposePreview(),
+            booking.getDate(),
+            booking.getStatus()
+        };
     }
 }
 